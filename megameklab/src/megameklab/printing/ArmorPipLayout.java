@@ -18,7 +18,6 @@ import static megameklab.printing.PrintRecordSheet.DEFAULT_PIP_SIZE;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -73,6 +72,14 @@ import megamek.logging.MMLogger;
  * its own g element and adding {@code mml-multisection:true} to the parent g
  * element's style attribute.
  * </p>
+ *
+ * <p>
+ * The computed pip positions depend only on the rect elements of the region,
+ * the number of pips and the grouping mode, so they are kept in a process-wide
+ * cache and replayed into the document on later sheets without repeating the
+ * layout calculations. The shape, outline, fill and damage of the pips are
+ * applied when they are added to the document.
+ * </p>
  */
 class ArmorPipLayout {
     private static final MMLogger logger = MMLogger.create(ArmorPipLayout.class);
@@ -80,11 +87,18 @@ class ArmorPipLayout {
     /** Margin of error used for checking equality between floating point values */
     private static final double PRECISION = 0.01;
 
-    private final PrintRecordSheet sheet;
+    /** The maximum number of layouts kept in the cache */
+    private static final int MAX_CACHED_LAYOUTS = 4096;
+
+    private static final Map<LayoutKey, PipLayout> layoutCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LayoutKey, PipLayout> eldest) {
+            return size() > MAX_CACHED_LAYOUTS;
+        }
+    };
+
     private final Element group;
-    private final PrintRecordSheet.PipType pipType;
-    private final double strokeWidth;
-    private final String fill;
+    private final PipPositions positions = new PipPositions();
     private final Bounds bounds;
     private final double avgHeight;
     private final double avgWidth;
@@ -115,64 +129,144 @@ class ArmorPipLayout {
                         PrintRecordSheet.PipType pipType, double strokeWidth,
                         String fill, int damage, boolean alternateMethod) {
         if (pipCount > 0) {
-            boolean multi = false;
-            final String multiVal = PrintRecordSheet.parseStyle(group, IdConstants.MML_MULTISECTION);
-            if (null != multiVal) {
-                multi = Boolean.parseBoolean(multiVal);
+            LayoutKey key = new LayoutKey(describeGeometry(group), pipCount, alternateMethod);
+            PipLayout layout;
+            synchronized (layoutCache) {
+                layout = layoutCache.get(key);
             }
-            if (multi) {
-                // If pips are to be split among multiple sections, instantiate each section and
-                // estimate the area.
-                // We will divide the pips proportionally to the area
-                List<ArmorPipLayout> sections = new ArrayList<>();
-                double area = 0.0;
-                for (int i = 0; i < group.getChildNodes().getLength(); i++) {
-                    final Node node = group.getChildNodes().item(i);
-                    if (node instanceof SVGGElement) {
-                        ArmorPipLayout section = new ArmorPipLayout(sheet, (Element) node, pipType, strokeWidth, fill);
-                        if (!section.regions.isEmpty()) {
-                            sections.add(section);
-                            area += section.avgWidth * section.bounds.height();
-                        }
-                    }
-                }
-                List<Integer> pipCounts = new ArrayList<>();
-                int allocated = 0;
-                for (ArmorPipLayout section : sections) {
-                    int pips = (int) Math.round(pipCount * (section.avgWidth * section.bounds.height() / area));
-                    allocated += pips;
-                    pipCounts.add(pips);
-                }
-                // Deal with rounding inaccuracies by distributing remaining pips starting with
-                // the first
-                // or removing extras starting with the last.
-                int i = 0;
-                while (pipCount > allocated) {
-                    int row = i % sections.size();
-                    pipCounts.set(row, pipCounts.get(row) + 1);
-                    allocated++;
-                    i++;
+            if (layout == null) {
+                layout = computeLayout(group, pipCount, alternateMethod);
+                synchronized (layoutCache) {
+                    layoutCache.put(key, layout);
                 }
-                while (pipCount < allocated) {
-                    int row = sections.size() - i % sections.size() - 1;
-                    pipCounts.set(row, pipCounts.get(row) - 1);
-                    allocated--;
-                    i++;
-                }
-                for (int s = 0; s < sections.size(); s++) {
-                    if (pipCounts.get(s) > 0) {
-                        sections.get(s).process(pipCounts.get(s), damage, alternateMethod);
+            }
+            layout.addTo(sheet, group, pipType, strokeWidth, fill, damage);
+        }
+    }
+
+    /**
+     * @return The number of cached layouts
+     */
+    static int cachedLayoutCount() {
+        synchronized (layoutCache) {
+            return layoutCache.size();
+        }
+    }
+
+    /**
+     * Discards all cached layouts.
+     */
+    static void clearLayoutCache() {
+        synchronized (layoutCache) {
+            layoutCache.clear();
+        }
+    }
+
+    /**
+     * Lays out the pips in the region without adding them to the document.
+     *
+     * @param group           The group element that contains the rect elements
+     * @param pipCount        The number of pips to place
+     * @param alternateMethod If the armor pips should be attempted to be grouped in 5s
+     * @return The positions of the pips in each section of the region
+     */
+    private static PipLayout computeLayout(Element group, int pipCount, boolean alternateMethod) {
+        List<PipLayout.Section> result = new ArrayList<>();
+        boolean multi = false;
+        final String multiVal = PrintRecordSheet.parseStyle(group, IdConstants.MML_MULTISECTION);
+        if (null != multiVal) {
+            multi = Boolean.parseBoolean(multiVal);
+        }
+        if (multi) {
+            // If pips are to be split among multiple sections, instantiate each section and
+            // estimate the area.
+            // We will divide the pips proportionally to the area
+            List<ArmorPipLayout> sections = new ArrayList<>();
+            List<Integer> sectionIndices = new ArrayList<>();
+            double area = 0.0;
+            int groupIndex = 0;
+            for (int i = 0; i < group.getChildNodes().getLength(); i++) {
+                final Node node = group.getChildNodes().item(i);
+                if (node instanceof SVGGElement) {
+                    ArmorPipLayout section = new ArmorPipLayout((Element) node);
+                    if (!section.regions.isEmpty()) {
+                        sections.add(section);
+                        sectionIndices.add(groupIndex);
+                        area += section.avgWidth * section.bounds.height();
                     }
+                    groupIndex++;
                 }
-            } else {
-                ArmorPipLayout layout = new ArmorPipLayout(sheet, group,
-                        pipType, strokeWidth, fill);
-                if (!layout.regions.isEmpty()) {
-                    layout.process(pipCount, damage, alternateMethod);
+            }
+            List<Integer> pipCounts = new ArrayList<>();
+            int allocated = 0;
+            for (ArmorPipLayout section : sections) {
+                int pips = (int) Math.round(pipCount * (section.avgWidth * section.bounds.height() / area));
+                allocated += pips;
+                pipCounts.add(pips);
+            }
+            // Deal with rounding inaccuracies by distributing remaining pips starting with
+            // the first
+            // or removing extras starting with the last.
+            int i = 0;
+            while (pipCount > allocated) {
+                int row = i % sections.size();
+                pipCounts.set(row, pipCounts.get(row) + 1);
+                allocated++;
+                i++;
+            }
+            while (pipCount < allocated) {
+                int row = sections.size() - i % sections.size() - 1;
+                pipCounts.set(row, pipCounts.get(row) - 1);
+                allocated--;
+                i++;
+            }
+            for (int s = 0; s < sections.size(); s++) {
+                if (pipCounts.get(s) > 0) {
+                    sections.get(s).process(pipCounts.get(s), alternateMethod);
+                    result.add(sections.get(s).positions.toSection(sectionIndices.get(s)));
                 }
             }
+        } else {
+            ArmorPipLayout layout = new ArmorPipLayout(group);
+            if (!layout.regions.isEmpty()) {
+                layout.process(pipCount, alternateMethod);
+                result.add(layout.positions.toSection(PipLayout.Section.PARENT));
+            }
         }
+        return new PipLayout(result);
     }
+
+    /**
+     * Creates a description of everything in the group that affects the layout of
+     * the pips, which is used as the key for cached layouts. Only attribute values
+     * are read so this is much cheaper than processing the regions.
+     *
+     * @param group The group element that contains the rect elements
+     * @return A string that is the same for groups that produce the same layout
+     */
+    private static String describeGeometry(Element group) {
+        StringBuilder sb = new StringBuilder();
+        appendGeometry(sb, group);
+        return sb.toString();
+    }
+
+    private static void appendGeometry(StringBuilder sb, Element group) {
+        sb.append(group.getAttributeNS(null, SVGConstants.SVG_STYLE_ATTRIBUTE)).append('[');
+        for (int i = 0; i < group.getChildNodes().getLength(); i++) {
+            final Node node = group.getChildNodes().item(i);
+            if (node instanceof SVGRectElement rect) {
+                sb.append(rect.getAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE)).append(',')
+                        .append(rect.getAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE)).append(',')
+                        .append(rect.getAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE)).append(',')
+                        .append(rect.getAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE)).append(',')
+                        .append(rect.getAttributeNS(null, SVGConstants.SVG_STYLE_ATTRIBUTE)).append(';');
+            } else if (node instanceof SVGGElement) {
+                appendGeometry(sb, (Element) node);
+            }
+        }
+        sb.append(']');
+    }
+
     /**
      * Processes the rect elements within a group to find the width of the region
      * at each marked point and adds pip elements to the group layed out in a
@@ -228,13 +322,8 @@ class ArmorPipLayout {
                 PrintRecordSheet.FILL_WHITE, 0, alternateMethod);
     }
 
-    private ArmorPipLayout(PrintRecordSheet sheet, Element group, PrintRecordSheet.PipType pipType,
-            double strokeWidth, String fill) {
-        this.sheet = sheet;
+    private ArmorPipLayout(Element group) {
         this.group = group;
-        this.pipType = pipType;
-        this.strokeWidth = strokeWidth;
-        this.fill = fill;
         bounds = processRegions();
         avgHeight = regions.values().stream().mapToDouble(Bounds::height).average().orElse(0.0);
         avgWidth = (regions.values().stream().mapToDouble(Bounds::width).sum()
@@ -348,9 +437,9 @@ class ArmorPipLayout {
         };
     }
 
-    void process(int pipCount, int damage, boolean alternate) {
+    void process(int pipCount, boolean alternate) {
         if (!alternate) {
-            process(pipCount, damage);
+            process(pipCount);
             return;
         }
         int attempts = 0;
@@ -402,31 +491,24 @@ class ArmorPipLayout {
             if (remaining > 0) {
                 attempts++;
                 if (attempts > 5) {
-                    process(pipCount, damage);
+                    process(pipCount);
                     return;
                 }
                 diameter *= 0.9;
             }
         } while (remaining > 0);
 
-        int remainingDamage = damage;
         for (var pip : pips) {
-            boolean isDamaged = false;
-            if (remainingDamage > 0) {
-                remainingDamage--;
-                isDamaged = true;
-            }
-            final String fillColor = (isDamaged) ? sheet.getDamageFillColor() : fill;
-            group.appendChild(sheet.createPip(pip.x, pip.y + (originalDiameter / 2 - diameter / 2.2), diameter / 2.2, strokeWidth, pipType, fillColor));
+            positions.add(pip.x, pip.y + (originalDiameter / 2 - diameter / 2.2), diameter / 2.2);
         }
     }
 
     /**
-     * Performs the calculations to lay out the pips and adds them to the document.
+     * Performs the calculations to lay out the pips and records their positions.
      *
      * @param pipCount The number of pips to place in the region
      */
-    private void process(int pipCount, int damage) {
+    private void process(int pipCount) {
         /* Estimate the number of rows required by finding the height of a rectangle
          * with an area of pipCount that has the same aspect ratio as the bounding box.
          */
@@ -524,7 +606,7 @@ class ArmorPipLayout {
             }
         }
         double xSpacing = adjustCount(pipCount, rows, gaps, rowCount, staggered, spacing);
-        drawPips(rows, gaps, rowCount, staggered, Math.min(radius, xSpacing * 0.4), xSpacing, damage);
+        drawPips(rows, gaps, rowCount, staggered, Math.min(radius, xSpacing * 0.4), xSpacing);
     }
 
     /**
@@ -668,7 +750,7 @@ class ArmorPipLayout {
     }
 
     /**
-     * Calculates the actual position of each pip and adds it to the document.
+     * Calculates the actual position of each pip and records it.
      *
      * @param rows      A list of bounding rectangles defining the position and
      *                  width of each row
@@ -679,7 +761,7 @@ class ArmorPipLayout {
      * @param radius    The radius of each pip.
      */
     private void drawPips(List<Bounds> rows, List<Bounds> gaps, List<Integer> rowCount,
-            boolean staggered, double radius, double xSpacing, int damage) {
+            boolean staggered, double radius, double xSpacing) {
         double dx = staggered ? xSpacing * 2 : xSpacing;
         /*
          * Find the row that takes up the largest percentage of its row. If it's over
@@ -710,23 +792,22 @@ class ArmorPipLayout {
         double centerX = rows.get(0).centerX();
         // The offset needed to center the pip in the cell.
         double xPadding = dx * 0.5 - radius;
-        AtomicInteger remainingDamageCounter = new AtomicInteger(damage);
         for (int r = 0; r < rows.size(); r++) {
             final Bounds row = rows.get(r);
             if (gaps.get(r).width() > 0) {
                 Bounds left = new Bounds(row.left, row.top, gaps.get(r).left, row.bottom);
                 Bounds right = new Bounds(gaps.get(r).right, row.top, row.right, row.bottom);
                 int count = (int) Math.round(rowCount.get(r) * left.width() / (left.width() + right.width()));
-                drawRow(left, count, radius, dx, centerX, xPadding, remainingDamageCounter);
-                drawRow(right, rowCount.get(r) - count, radius, dx, centerX, xPadding, remainingDamageCounter);
+                drawRow(left, count, radius, dx, centerX, xPadding);
+                drawRow(right, rowCount.get(r) - count, radius, dx, centerX, xPadding);
                 centerX = row.centerX();
             } else {
-                centerX = drawRow(row, rowCount.get(r), radius, dx, centerX, xPadding, remainingDamageCounter);
+                centerX = drawRow(row, rowCount.get(r), radius, dx, centerX, xPadding);
             }
         }
     }
 
-    private double drawRow(Bounds row, int count, double radius, double dx, double centerX, double xPadding, AtomicInteger damageCounter) {
+    private double drawRow(Bounds row, int count, double radius, double dx, double centerX, double xPadding) {
         double xpos = calcRowStartX(centerX, count, dx) + xPadding;
         while (xpos < row.left) {
             xpos += dx;
@@ -739,15 +820,7 @@ class ArmorPipLayout {
             xpos = calcRowStartX(centerX, count, dx) + xPadding;
         }
         for (int i = 0; i < count; i++) {
-            boolean isDamaged = false;
-            if (damageCounter.get() > 0) {
-                if (damageCounter.decrementAndGet() >= 0) {
-                    isDamaged = true;
-                }
-            }
-            final String fillColor = (isDamaged) ? sheet.getDamageFillColor() : fill;
-            Element pip = sheet.createPip(xpos, row.top, radius, strokeWidth, pipType, fillColor);
-            group.appendChild(pip);
+            positions.add(xpos, row.top, radius);
             xpos += dx;
         }
         return centerX;
@@ -801,4 +874,89 @@ class ArmorPipLayout {
             return left + width() * 0.5;
         }
     }
+
+    /**
+     * Key for cached layouts
+     *
+     * @param geometry  The description of the region from {@link #describeGeometry(Element)}
+     * @param pipCount  The number of pips
+     * @param alternate Whether the pips are grouped in 5s
+     */
+    private record LayoutKey(String geometry, int pipCount, boolean alternate) {
+    }
+
+    /**
+     * Collects pip positions as they are calculated.
+     */
+    private static class PipPositions {
+        private double[] values = new double[48];
+        private int size;
+
+        void add(double x, double y, double radius) {
+            if (size + 3 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = x;
+            values[size++] = y;
+            values[size++] = radius;
+        }
+
+        PipLayout.Section toSection(int groupIndex) {
+            return new PipLayout.Section(groupIndex, Arrays.copyOf(values, size));
+        }
+    }
+
+    /**
+     * The calculated positions of all pips in a region. This is immutable and
+     * shared between sheets.
+     *
+     * @param sections The sections of the region that have pips
+     */
+    private record PipLayout(List<Section> sections) {
+
+        /**
+         * The pips in one section of the region
+         *
+         * @param groupIndex The index of the section among the g children of the
+         *                   region, or {@link #PARENT} if the pips go in the region
+         *                   itself.
+         * @param pips       The x, y and radius of each pip, in the order they are
+         *                   placed. Damage is marked on the first pips of each section.
+         */
+        private record Section(int groupIndex, double[] pips) {
+            static final int PARENT = -1;
+        }
+
+        /**
+         * Adds the pips to the document.
+         */
+        void addTo(PrintRecordSheet sheet, Element group, PrintRecordSheet.PipType pipType, double strokeWidth,
+                String fill, int damage) {
+            for (Section section : sections) {
+                Element target = (section.groupIndex() == Section.PARENT) ? group
+                        : findGroup(group, section.groupIndex());
+                double[] pips = section.pips();
+                for (int i = 0; i < pips.length / 3; i++) {
+                    final String fillColor = (i < damage) ? sheet.getDamageFillColor() : fill;
+                    target.appendChild(sheet.createPip(pips[i * 3], pips[i * 3 + 1], pips[i * 3 + 2],
+                            strokeWidth, pipType, fillColor));
+                }
+            }
+        }
+
+        private static Element findGroup(Element parent, int groupIndex) {
+            int index = 0;
+            for (int i = 0; i < parent.getChildNodes().getLength(); i++) {
+                final Node node = parent.getChildNodes().item(i);
+                if (node instanceof SVGGElement) {
+                    if (index == groupIndex) {
+                        return (Element) node;
+                    }
+                    index++;
+                }
+            }
+            // The geometry key includes every g child, so the group always exists.
+            throw new IllegalStateException("Pip section " + groupIndex + " not found");
+        }
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.batik.util.SVGConstants;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import megamek.common.annotations.Nullable;
+import megamek.logging.MMLogger;
+
+/**
+ * Holds the canon armor and internal structure pip patterns for biped Meks. The pattern files are read once, the
+ * first time any pattern is requested, and only the attributes of their path elements are kept. Record sheets
+ * create the pip elements directly from these attributes without any file access or XML parsing.
+ */
+final class BipedPipBank {
+    private static final MMLogger logger = MMLogger.create(BipedPipBank.class);
+
+    static final String PIP_DIRECTORY = "data/images/recordsheets/biped_pips";
+
+    private static final String SVG_SUFFIX = ".svg";
+
+    /**
+     * The path elements of each pattern file, keyed by the file name without extension. Each path is stored as
+     * alternating attribute names and values.
+     */
+    private final Map<String, String[][]> patterns;
+    private final File directory;
+
+    private static class Holder {
+        private static final BipedPipBank instance = new BipedPipBank(new File(PIP_DIRECTORY));
+    }
+
+    /**
+     * @return The bank for the pip patterns in {@link #PIP_DIRECTORY}, loading them if this is the first call
+     */
+    static BipedPipBank getInstance() {
+        return Holder.instance;
+    }
+
+    BipedPipBank(File directory) {
+        this.directory = directory;
+        patterns = load(directory);
+    }
+
+    /**
+     * @param location The location name used in the pattern files, such as CT, LArm or Head_R
+     * @param count    The number of armor points
+     * @return The pip pattern for the armor of the location, or {@code null} if there is none
+     */
+    @Nullable String[][] armorPips(String location, int count) {
+        return pattern(String.format("Armor_%s_%d_Humanoid", location, count));
+    }
+
+    /**
+     * @param tonnage  The weight of the Mek
+     * @param location The location abbreviation
+     * @return The pip pattern for the internal structure of the location, or {@code null} if there is none
+     */
+    @Nullable String[][] structurePips(int tonnage, String location) {
+        return pattern(String.format("BipedIS%d_%s", tonnage, location));
+    }
+
+    /**
+     * Looks up a pattern and reports its file as an input of the sheet being rendered, whether it exists or not, so
+     * an export manifest notices when the file is changed, added or removed.
+     */
+    private @Nullable String[][] pattern(String name) {
+        SVGTemplateCache.recordInput(new File(directory, name + SVG_SUFFIX).toPath());
+        return patterns.get(name);
+    }
+
+    /**
+     * @return The number of patterns in the bank
+     */
+    int size() {
+        return patterns.size();
+    }
+
+    /**
+     * Creates path elements for a pattern and adds them to the parent.
+     *
+     * @param pattern     The pattern from {@link #armorPips(String, int)} or {@link #structurePips(int, String)}
+     * @param parent      The element to add the pips to
+     * @param damage      The number of pips to mark as damaged
+     * @param damageColor The fill color for damaged pips
+     */
+    static void addPips(String[][] pattern, Element parent, int damage, String damageColor) {
+        Document doc = parent.getOwnerDocument();
+        for (int i = 0; i < pattern.length; i++) {
+            Element path = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_PATH_TAG);
+            String[] attributes = pattern[i];
+            for (int a = 0; a < attributes.length; a += 2) {
+                path.setAttributeNS(null, attributes[a], attributes[a + 1]);
+            }
+            if (i < damage) {
+                path.setAttributeNS(null, SVGConstants.SVG_FILL_ATTRIBUTE, damageColor);
+            }
+            parent.appendChild(path);
+        }
+    }
+
+    private static Map<String, String[][]> load(File directory) {
+        Map<String, String[][]> patterns = new HashMap<>();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SVG_SUFFIX));
+        if (files == null) {
+            logger.error("Pip pattern directory not found: " + directory);
+            return patterns;
+        }
+        SAXParser parser;
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            // The files declare the SVG 1.1 DTD, which is not needed and would otherwise be fetched from the web
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            parser = factory.newSAXParser();
+        } catch (ParserConfigurationException | SAXException ex) {
+            logger.error("Could not create parser for pip patterns", ex);
+            return patterns;
+        }
+        // The styling attributes are the same for nearly all pips, so share the strings
+        Map<String, String> strings = new HashMap<>();
+        for (File file : files) {
+            List<String[]> paths = new ArrayList<>();
+            try {
+                parser.reset();
+                parser.parse(file, new DefaultHandler() {
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        if (SVGConstants.SVG_PATH_TAG.equals(qName)) {
+                            String[] path = new String[attributes.getLength() * 2];
+                            for (int i = 0; i < attributes.getLength(); i++) {
+                                String name = attributes.getQName(i);
+                                String value = attributes.getValue(i);
+                                path[i * 2] = strings.computeIfAbsent(name, n -> n);
+                                path[i * 2 + 1] = SVGConstants.SVG_D_ATTRIBUTE.equals(name) ? value
+                                        : strings.computeIfAbsent(value, v -> v);
+                            }
+                            paths.add(path);
+                        }
+                    }
+                });
+            } catch (SAXException | IOException ex) {
+                logger.error("Failed to read pip pattern " + file.getName(), ex);
+                continue;
+            }
+            String name = file.getName();
+            patterns.put(name.substring(0, name.length() - SVG_SUFFIX.length()), paths.toArray(new String[0][]));
+        }
+        logger.debug("Loaded {} pip patterns", patterns.size());
+        return patterns;
+    }
+}
@@ -19,9 +19,23 @@
 
 package megameklab.printing;
 
+import java.awt.print.PageFormat;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import megamek.client.ui.util.FluffImageHelper;
 import megamek.common.Entity;
@@ -30,74 +44,238 @@ import megamek.common.GunEmplacement;
 import megamek.common.MekSummary;
 import megamek.common.MekSummaryCache;
 import megamek.logging.MMLogger;
+import megameklab.MMLConstants;
 import megameklab.MMLOptions;
 import megameklab.util.CConfig;
 import megameklab.util.UnitPrintManager;
 
+/**
+ * Headless batch export of the record sheets of all units in the unit cache, one PDF per unit. Units are exported on
+ * a pool of worker threads; each unit is rendered entirely on its worker. See {@link MassPrintOptions#USAGE} for the
+ * filters and files that can be set on the command line.
+ *
+ * <p>The inputs of every finished unit are recorded in an {@link ExportManifest}. Units whose unit file, templates,
+ * pip patterns, images, options and build version are unchanged since they were last exported are skipped without
+ * being loaded, so an interrupted run resumes where it stopped and repeated runs only render what has changed. The
+ * time taken and any error for each rendered unit are written to a CSV report. The exit code is 0 if all units were
+ * exported, 1 if any unit failed and 2 if the export could not be started.</p>
+ */
 public class CGLMassPrinter {
     private static final MMLogger logger = MMLogger.create(CGLMassPrinter.class);
 
-    public static void main(String[] args) {
-        File sheetsDir = new File("sheets");
+    static final int EXIT_OK = 0;
+    static final int EXIT_UNIT_FAILED = 1;
+    static final int EXIT_ERROR = 2;
 
-        if (!sheetsDir.exists() || !sheetsDir.isDirectory()) {
-            sheetsDir.mkdirs();
-            logger.error("Error: sheets directory does not exist, creating it.");
+    public static void main(String[] args) {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
         }
+        System.exit(run(args));
+    }
 
+    private static int run(String[] args) {
         Locale.setDefault(new MMLOptions().getLocale());
-        EquipmentType.initializeTypes();
         CConfig.load();
+
+        MassPrintOptions options;
+        try {
+            options = MassPrintOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.print(MassPrintOptions.USAGE);
+            return EXIT_ERROR;
+        }
+        if (options.help) {
+            System.out.print(MassPrintOptions.USAGE);
+            return EXIT_OK;
+        }
+
+        if (!options.outputDir.isDirectory() && !options.outputDir.mkdirs()) {
+            logger.error("Couldn't create output folder {}", options.outputDir);
+            return EXIT_ERROR;
+        }
+
+        EquipmentType.initializeTypes();
         MekSummaryCache cache = MekSummaryCache.getInstance(true);
 
-        for (MekSummary mekSummary : cache.getAllMeks()) {
-            logger.info("Looking at {}", mekSummary.getName());
-
-            /*
-             * if (!mekSummary.isProtoMek() && !mekSummary.isCombatVehicle()) {
-             * continue;
-             * }
-             *
-             * // 1 - uncomment this block and cycle all the start characters A-Z (only
-             * // uppercase)
-             * if (!mekSummary.getName().toUpperCase().startsWith("C")) {
-             * continue;
-             * }
-             *
-             * // 2 - uncomment this block, comment the above block, run once more
-             * if (mekSummary.getName().toUpperCase().charAt(0) <= 'Z' &&
-             * mekSummary.getName().toUpperCase().charAt(0) >= 'A') {
-             * continue;
-             * }
-             *
-             */
-            Entity entity = mekSummary.loadEntity();
-
-            if (entity != null && !(entity instanceof GunEmplacement)) {
-                File sheetPath = new File("sheets", FluffImageHelper.getFluffPath(entity));
-
-                if (!sheetPath.exists() && !sheetPath.mkdirs()) {
-                    logger.error("Couldn't create folder {}", sheetPath);
-                    System.exit(1);
-                }
+        try (ExportManifest manifest = new ExportManifest(options.manifestFile, options.restart);
+                BufferedWriter report = openReport(options.reportFile)) {
+            return new CGLMassPrinter(options, manifest, report).exportAll(cache.getAllMeks());
+        } catch (IOException ex) {
+            logger.error(ex, "Could not open manifest or report file");
+            return EXIT_ERROR;
+        } catch (InterruptedException ex) {
+            logger.error("Export interrupted");
+            Thread.currentThread().interrupt();
+            return EXIT_ERROR;
+        }
+    }
+
+    private static BufferedWriter openReport(File reportFile) throws IOException {
+        boolean isNew = !reportFile.exists();
+        BufferedWriter report = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (isNew) {
+            report.write("status,millis,unit,file,error");
+            report.newLine();
+        }
+        return report;
+    }
+
+    private final MassPrintOptions options;
+    private final ExportManifest manifest;
+    private final BufferedWriter report;
+    private final RecordSheetOptions recordSheetOptions = new RecordSheetOptions();
+    private final String optionsHash;
+    private final String version = MMLConstants.VERSION.toString();
+    private final PageFormat pageFormat = new PageFormat();
+    private final AtomicInteger finished = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private CGLMassPrinter(MassPrintOptions options, ExportManifest manifest, BufferedWriter report) {
+        this.options = options;
+        this.manifest = manifest;
+        this.report = report;
+        // The font is a global setting rather than a record sheet option but changes the output all the same
+        optionsHash = ExportManifest.hashString(recordSheetOptions.getFingerprint() + ","
+                + CConfig.getParam(CConfig.RS_FONT));
+        pageFormat.setPaper(recordSheetOptions.getPaperSize().createPaper());
+    }
 
-                File file = normalizePath(sheetPath, mekSummary);
+    /**
+     * Exports all units that pass the filters and waits for them to finish.
+     *
+     * @param summaries All units of the cache
+     * @return The exit code
+     */
+    private int exportAll(MekSummary[] summaries) throws InterruptedException {
+        List<MekSummary> units = new ArrayList<>();
+        for (MekSummary summary : summaries) {
+            if (options.matches(summary)) {
+                units.add(summary);
+            }
+        }
+        logger.info("Exporting {} units on {} threads, {} in manifest", units.size(), options.threads,
+                manifest.size());
 
-                try {
-                    List<Entity> units = printableListOfUnits(entity);
-                    UnitPrintManager.exportUnits(units, file, true);
-                    logger.info("Printed: {}", file);
-                } catch (Exception e) {
-                    logger.error(e, "Printing Error");
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            for (MekSummary summary : units) {
+                executor.execute(() -> export(summary, units.size()));
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("{} of {} units done", finished.get(), units.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info("Exported {} units in {} s, {} unchanged, {} failed",
+                finished.get() - unchanged.get() - failed.get(), (System.currentTimeMillis() - start) / 1000,
+                unchanged.get(), failed.get());
+        logger.info(SVGTemplateCache.getInstance().toString());
+        return (failed.get() > 0) ? EXIT_UNIT_FAILED : EXIT_OK;
+    }
+
+    /**
+     * Exports a single unit unless the manifest shows it is unchanged. The manifest is checked with the hash of the
+     * unit file, so unchanged units are not loaded. This runs on a worker thread.
+     */
+    private void export(MekSummary summary, int total) {
+        long start = System.nanoTime();
+        String key = manifestKey(summary);
+        File file = new File(options.outputDir, key);
+        try {
+            String unitHash = unitHash(summary);
+            if (manifest.isCurrent(key, unitHash, optionsHash, version)) {
+                unchanged.incrementAndGet();
+            } else {
+                Entity entity = summary.loadEntity();
+                if (entity == null) {
+                    throw new IllegalStateException("Unit could not be loaded");
                 }
+                Set<Path> templates = new HashSet<>();
+                boolean printable = !(entity instanceof GunEmplacement);
+                if (printable) {
+                    file = new File(new File(options.outputDir, FluffImageHelper.getFluffPath(entity)), key);
+                    render(entity, file, templates);
+                }
+                manifest.record(key, unitHash, optionsHash, version, printable ? file : null, templates);
+                report("ok", start, summary, file, "");
+            }
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+            logger.error(ex, "Printing Error: " + summary.getName());
+            report("failed", start, summary, file, String.valueOf(ex.getMessage()));
+        }
+        int count = finished.incrementAndGet();
+        if (count % 100 == 0) {
+            logger.info("{} of {} units done", count, total);
+        }
+    }
 
-                // Added to keep memory usage from ballooning during processing.
-                System.gc();
+    private void report(String status, long start, MekSummary summary, File file, String error) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String line = String.join(",", status, Long.toString(millis), csv(summary.getName()), csv(file.getPath()),
+                csv(error));
+        synchronized (report) {
+            try {
+                report.write(line);
+                report.newLine();
+                report.flush();
+            } catch (IOException ex) {
+                logger.warn("Could not write report line: " + line, ex);
             }
         }
+    }
 
-        logger.info("Done.");
-        System.exit(0);
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"").replace('\n', ' ') + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Renders the record sheets of a unit to a PDF file, collecting the templates and other input files that were
+     * used.
+     */
+    private void render(Entity entity, File file, Set<Path> templates) throws Exception {
+        File sheetPath = file.getParentFile();
+        if (!sheetPath.isDirectory() && !sheetPath.mkdirs()) {
+            throw new IOException("Couldn't create folder " + sheetPath);
+        }
+        List<PrintRecordSheet> sheets = UnitPrintManager.createSheets(printableListOfUnits(entity), true,
+                new RecordSheetOptions(recordSheetOptions), true);
+        // Units are already exported in parallel, so each one is rendered on its own worker. This also lets the
+        // template cache record the templates used by this unit.
+        SVGTemplateCache.recordTemplatesUsed(templates);
+        try {
+            new RecordSheetExporter(pageFormat).setThreads(1).export(sheets, file);
+        } finally {
+            SVGTemplateCache.recordTemplatesUsed(null);
+        }
+    }
+
+    /**
+     * Units are identified in the manifest by their output file name, which is unique within the cache.
+     */
+    private static String manifestKey(MekSummary summary) {
+        return normalizeFileName(summary);
+    }
+
+    /**
+     * Units that are stored in an archive share the hash of the archive, so all of them are exported again when any
+     * of them changes.
+     */
+    private static String unitHash(MekSummary summary) throws IOException {
+        String fileHash = ExportManifest.hashFile(summary.getSourceFile());
+        return (summary.getEntryName() == null) ? fileHash
+                : ExportManifest.hashString(fileHash + '/' + summary.getEntryName());
     }
 
     private static List<Entity> printableListOfUnits(Entity entity) {
@@ -108,19 +286,14 @@ public class CGLMassPrinter {
         }
     }
 
-    private static File normalizePath(File path, MekSummary unit) {
-        String fileName = String.format("%s_%s_%s.pdf",
+    private static String normalizeFileName(MekSummary unit) {
+        return String.format("%s_%s_%s.pdf",
                 unit.getMulId(),
                 sanitize(unit.getChassis()),
                 sanitize(unit.getModel()));
-        return new File(path, fileName);
     }
 
     private static String sanitize(String original) {
         return original.replace("\"", "").replace("/", "");
     }
-
-    private CGLMassPrinter() {
-        throw new IllegalStateException();
-    }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.imageio.ImageIO;
+
+import megamek.common.annotations.Nullable;
+import megamek.common.util.ImageUtil;
+import megamek.logging.MMLogger;
+import megameklab.util.CConfig;
+
+/**
+ * Process-wide cache of images encoded for embedding in record sheets. Each entry holds a PNG data URI ready to be
+ * used as the link of an SVG image element. Images read from a file are keyed by the file, its modification time and
+ * the size of the box the image is printed in, so the file is only decoded and encoded again if it changes. Images
+ * that are passed in memory are keyed by the SHA-256 digest of their dimensions and pixels instead. The digest is
+ * remembered for each image object, so the pixels of an image are only read the first time it is printed; images
+ * must therefore not be changed once they have been printed.
+ *
+ * <p>Images that are larger than needed to fill the printed box at the configured resolution are scaled down
+ * before they are encoded. The total size of the encoded images is bounded by a memory budget, and the least
+ * recently used images are evicted when it is exceeded.</p>
+ */
+final class EmbeddedImageCache {
+    private static final MMLogger logger = MMLogger.create(EmbeddedImageCache.class);
+
+    /** Default memory budget in megabytes, used if {@link CConfig#RS_IMAGE_CACHE_MB} is not set */
+    static final int DEFAULT_BUDGET_MB = 16;
+
+    /** Default resolution of embedded images, used if {@link CConfig#RS_IMAGE_DPI} is not set */
+    static final int DEFAULT_DPI = 300;
+
+    /** The resolution of record sheet user space, in which the boxes are measured */
+    private static final double POINTS_PER_INCH = 72.0;
+
+    private static final String DATA_URI_PREFIX = "data:image/png;base64,";
+
+    private static final EmbeddedImageCache instance = new EmbeddedImageCache(
+            CConfig.getIntParam(CConfig.RS_IMAGE_CACHE_MB, DEFAULT_BUDGET_MB) * 1024L * 1024L,
+            CConfig.getIntParam(CConfig.RS_IMAGE_DPI, DEFAULT_DPI));
+
+    /**
+     * An image ready to be embedded.
+     *
+     * @param dataUri The image encoded as data URI
+     * @param width   The width of the source image, which determines the aspect ratio of the printed image
+     * @param height  The height of the source image
+     */
+    record EncodedImage(String dataUri, double width, double height) {
+    }
+
+    private record Key(String source, long version, int targetWidth, int targetHeight) {
+    }
+
+    private final LinkedHashMap<Key, EncodedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+    /** The fingerprints of the images passed in memory, by image object */
+    private final Map<Image, String> fingerprints = new WeakHashMap<>();
+    private final long maxBytes;
+    private final int dpi;
+    private long currentBytes;
+
+    /**
+     * @return The shared image cache
+     */
+    static EmbeddedImageCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param maxBytes The budget for the encoded images
+     * @param dpi      The resolution at which images are printed, or zero to embed images at their full size
+     */
+    EmbeddedImageCache(long maxBytes, int dpi) {
+        this.maxBytes = maxBytes;
+        this.dpi = dpi;
+    }
+
+    /**
+     * Returns the image in the file encoded for a box of the given size, reading the file only if it is not cached
+     * or has been modified since.
+     *
+     * @param imageFile The image file
+     * @param boxWidth  The width of the box the image is printed in
+     * @param boxHeight The height of the box the image is printed in
+     * @return The encoded image
+     * @throws IOException If the file could not be read or does not contain an image
+     */
+    EncodedImage get(File imageFile, double boxWidth, double boxHeight) throws IOException {
+        Key key = new Key(imageFile.getAbsolutePath(), imageFile.lastModified(),
+                toPixels(boxWidth), toPixels(boxHeight));
+        EncodedImage encoded = lookup(key);
+        if (encoded == null) {
+            BufferedImage image = ImageIO.read(imageFile);
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + imageFile);
+            }
+            encoded = encode(image, key);
+            store(key, encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Returns the image encoded for a box of the given size. Images with the same dimensions and pixels share a
+     * cache entry. The image must not be changed after it has been passed in.
+     *
+     * @param image     The image
+     * @param boxWidth  The width of the box the image is printed in
+     * @param boxHeight The height of the box the image is printed in
+     * @return The encoded image
+     * @throws IOException If the image could not be encoded
+     */
+    EncodedImage get(Image image, double boxWidth, double boxHeight) throws IOException {
+        BufferedImage bufferedImage = null;
+        String fingerprint;
+        synchronized (this) {
+            fingerprint = fingerprints.get(image);
+        }
+        if (fingerprint == null) {
+            bufferedImage = ImageUtil.convertToBufferedImage(image);
+            fingerprint = fingerprint(bufferedImage);
+            synchronized (this) {
+                fingerprints.put(image, fingerprint);
+            }
+        }
+        Key key = new Key(fingerprint, 0, toPixels(boxWidth), toPixels(boxHeight));
+        EncodedImage encoded = lookup(key);
+        if (encoded == null) {
+            if (bufferedImage == null) {
+                bufferedImage = ImageUtil.convertToBufferedImage(image);
+            }
+            encoded = encode(bufferedImage, key);
+            store(key, encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * @return The number of cached images
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private int toPixels(double points) {
+        return (dpi > 0) ? (int) Math.ceil(points * dpi / POINTS_PER_INCH) : 0;
+    }
+
+    private synchronized @Nullable EncodedImage lookup(Key key) {
+        return entries.get(key);
+    }
+
+    private synchronized void store(Key key, EncodedImage encoded) {
+        EncodedImage previous = entries.put(key, encoded);
+        if (previous != null) {
+            currentBytes -= estimateSize(previous);
+        }
+        currentBytes += estimateSize(encoded);
+        Iterator<Map.Entry<Key, EncodedImage>> iter = entries.entrySet().iterator();
+        while ((currentBytes > maxBytes) && iter.hasNext()) {
+            Map.Entry<Key, EncodedImage> eldest = iter.next();
+            if (eldest.getKey().equals(key)) {
+                // Always keep the image that was just added, even if it is larger than the budget
+                continue;
+            }
+            currentBytes -= estimateSize(eldest.getValue());
+            iter.remove();
+        }
+    }
+
+    private static long estimateSize(EncodedImage encoded) {
+        return encoded.dataUri().length() * 2L;
+    }
+
+    private static EncodedImage encode(BufferedImage image, Key key) throws IOException {
+        BufferedImage scaled = image;
+        if ((key.targetWidth() > 0) && (key.targetHeight() > 0)) {
+            double scale = Math.min((double) key.targetWidth() / image.getWidth(),
+                    (double) key.targetHeight() / image.getHeight());
+            if (scale < 1.0) {
+                scaled = downscale(image, Math.max(1, (int) Math.ceil(image.getWidth() * scale)),
+                        Math.max(1, (int) Math.ceil(image.getHeight() * scale)));
+            }
+        }
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
+            ImageIO.write(scaled, "png", bytes);
+            logger.debug("Encoded {} at {}x{} pixels", key.source(), scaled.getWidth(), scaled.getHeight());
+            return new EncodedImage(DATA_URI_PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray()),
+                    image.getWidth(), image.getHeight());
+        }
+    }
+
+    /**
+     * Scales the image down to the given size. Large reductions are done in steps of at most one half, since a
+     * single bicubic step would skip most of the source pixels.
+     */
+    private static BufferedImage downscale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        do {
+            int stepWidth = Math.max(width, current.getWidth() / 2);
+            int stepHeight = Math.max(height, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = next.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            g2d.dispose();
+            current = next;
+        } while ((current.getWidth() > width) || (current.getHeight() > height));
+        return current;
+    }
+
+    /**
+     * @return The dimensions and the SHA-256 digest of the dimensions and pixels of the image
+     */
+    static String fingerprint(BufferedImage image) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        digest.update(ByteBuffer.allocate(2 * Integer.BYTES).putInt(width).putInt(height).array());
+        int[] row = new int[width];
+        ByteBuffer rowBytes = ByteBuffer.allocate(width * Integer.BYTES);
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            rowBytes.clear();
+            rowBytes.asIntBuffer().put(row);
+            digest.update(rowBytes.array());
+        }
+        return "image:" + width + 'x' + height + ':' + HexFormat.of().formatHex(digest.digest());
+    }
+}
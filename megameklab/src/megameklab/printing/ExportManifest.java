@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import megamek.common.annotations.Nullable;
+import megamek.logging.MMLogger;
+
+/**
+ * Records the inputs of every record sheet written by a batch export, so a later run only renders the units whose
+ * inputs have changed. Each entry is keyed by the output file name and holds a SHA-256 hash of the unit file, a hash
+ * of the record sheet options, the build version, the path of the written file and a hash of every template and other
+ * input file that was used to render the sheet, such as pip patterns and embedded images. Directories that images are
+ * looked up in are hashed by their listing. An entry can be checked with the unit file alone, so unchanged units
+ * don't need to be loaded.
+ *
+ * <p>Entries are appended to the manifest file and flushed as soon as a unit is finished, so an interrupted run can
+ * be resumed without losing work. Later lines replace earlier ones with the same key; the file is rewritten without
+ * the superseded lines when the manifest is closed. This class is thread safe.</p>
+ */
+class ExportManifest implements Closeable {
+    private static final MMLogger logger = MMLogger.create(ExportManifest.class);
+
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * The inputs that a record sheet was rendered from
+     *
+     * @param unitHash       Hash of the unit file
+     * @param optionsHash    Hash of the record sheet options
+     * @param version        The build version
+     * @param output         The path of the written file, or an empty string if nothing was written
+     * @param templateHashes Hashes of the templates and other input files used, keyed by their path
+     */
+    record Entry(String unitHash, String optionsHash, String version, String output,
+            Map<String, String> templateHashes) {
+    }
+
+    private final File file;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, String> currentTemplateHashes = new ConcurrentHashMap<>();
+    private final BufferedWriter writer;
+
+    /**
+     * Opens the manifest file, reading the entries of earlier runs unless restarting.
+     *
+     * @param file    The manifest file
+     * @param restart Whether to discard the entries of earlier runs, so that all units are rendered again
+     */
+    ExportManifest(File file, boolean restart) throws IOException {
+        this.file = file;
+        if (!restart && file.exists()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                parseLine(line);
+            }
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                restart ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+    }
+
+    private void parseLine(String line) {
+        String[] fields = line.split(SEPARATOR, -1);
+        // key, unit, options, version, output and pairs of template path and hash
+        if ((fields.length < 5) || (fields.length % 2 == 0)) {
+            if (!line.isBlank()) {
+                logger.warn("Ignoring malformed manifest line: " + line);
+            }
+            return;
+        }
+        Map<String, String> templates = new HashMap<>();
+        for (int i = 5; i < fields.length; i += 2) {
+            templates.put(fields[i], fields[i + 1]);
+        }
+        entries.put(fields[0], new Entry(fields[1], fields[2], fields[3], fields[4], templates));
+    }
+
+    /**
+     * Checks whether the output recorded under the key still exists and was rendered from the same unit file,
+     * options, version, templates and other input files that it would be rendered from now.
+     *
+     * @param key         The key identifying the output
+     * @param unitHash    Hash of the current unit file
+     * @param optionsHash Hash of the current options
+     * @param version     The current build version
+     * @return Whether the output does not need to be rendered again
+     */
+    boolean isCurrent(String key, String unitHash, String optionsHash, String version) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if ((entry == null) || !entry.unitHash().equals(unitHash) || !entry.optionsHash().equals(optionsHash)
+                || !entry.version().equals(version)
+                || (!entry.output().isEmpty() && !new File(entry.output()).exists())) {
+            return false;
+        }
+        for (Map.Entry<String, String> template : entry.templateHashes().entrySet()) {
+            if (!template.getValue().equals(templateHash(Path.of(template.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records that an output has been rendered and writes the entry to the manifest file.
+     *
+     * @param key         The key identifying the output
+     * @param unitHash    Hash of the unit file
+     * @param optionsHash Hash of the options
+     * @param version     The build version
+     * @param output      The written file, or null if nothing was written for the unit
+     * @param templates   The templates and other input files used to render the output
+     */
+    void record(String key, String unitHash, String optionsHash, String version, @Nullable File output,
+            Collection<Path> templates) throws IOException {
+        Map<String, String> templateHashes = new HashMap<>();
+        for (Path template : templates) {
+            templateHashes.put(template.toString(), templateHash(template));
+        }
+        Entry entry = new Entry(unitHash, optionsHash, version, (output == null) ? "" : output.getPath(),
+                templateHashes);
+        synchronized (this) {
+            entries.put(key, entry);
+            writer.write(format(key, entry));
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    /**
+     * @return The number of outputs in the manifest
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static String format(String key, Entry entry) {
+        StringBuilder sb = new StringBuilder(key).append(SEPARATOR).append(entry.unitHash())
+                .append(SEPARATOR).append(entry.optionsHash())
+                .append(SEPARATOR).append(entry.version())
+                .append(SEPARATOR).append(entry.output());
+        entry.templateHashes().forEach((path, hash) -> sb.append(SEPARATOR).append(path)
+                .append(SEPARATOR).append(hash));
+        return sb.toString();
+    }
+
+    /**
+     * Templates are shared by many units, so each one is hashed only once per run.
+     */
+    private String templateHash(Path template) {
+        return currentTemplateHashes.computeIfAbsent(template.toString(), p -> {
+            try {
+                File input = template.toFile();
+                return input.isDirectory() ? hashDirectory(input) : hashFile(input);
+            } catch (IOException ex) {
+                // Forces units that used a template that is gone to be rendered again
+                return "missing";
+            }
+        });
+    }
+
+    /**
+     * Closes the manifest file and rewrites it with only the latest entry for each output.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+        Path compacted = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), "manifest", ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.write(format(entry.getKey(), entry.getValue()));
+                out.newLine();
+            }
+        }
+        Files.move(compacted, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @param file The file to hash
+     * @return The hex encoded SHA-256 hash of the file contents
+     */
+    static String hashFile(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream is = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+            is.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param directory The directory to hash
+     * @return The hex encoded SHA-256 hash of the relative path, size and modification time of every file in the
+     *         directory and its subdirectories
+     */
+    static String hashDirectory(File directory) throws IOException {
+        Path root = directory.toPath();
+        List<String> listing = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                listing.add(root.relativize(path) + SEPARATOR + Files.size(path) + SEPARATOR
+                        + Files.getLastModifiedTime(path).toMillis());
+            }
+        }
+        Collections.sort(listing);
+        return hashString(String.join("\n", listing));
+    }
+
+    /**
+     * @param text The text to hash
+     * @return The hex encoded SHA-256 hash of the UTF-8 encoded text
+     */
+    static String hashString(String text) {
+        return HexFormat.of().formatHex(newDigest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -26,10 +26,12 @@ import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import megamek.common.equipment.AmmoMounted;
@@ -542,89 +544,119 @@ public class InventoryWriter {
      * and if it fails we start an alternate cycle of attempts between font size
      * and line spacing reduction.
      *
+     * <p>Each attempt uses a font size and line spacing no larger than the one before, and smaller text never
+     * needs more lines, so whether the text fits changes only once along each sequence of attempts. Instead of
+     * measuring every attempt, the first one that fits is found by bisection. The number of lines is calculated
+     * at most once per font size.</p>
+     *
      * @param height The height of the region the text needs to fit in
      * @param calcLines A supplier for the number of lines. Since reducing the font size may allow for fewer
      *                  lines, the supplier gives an opportunity to recalculate after each resizing.
      * @return A tuple of the new font height and line height, in that order
      */
     public float[] scaleText(double height, Function<Float, Integer> calcLines) {
-        float currentFontSize = FONT_SIZE_MEDIUM;
-        float currentLineSpacingFactor = INITIAL_LINE_SPACING;
-        int lines;
-        float actualLineHeight;
-        int alternateReductionState = 0; // 0 = prioritize font size, 1 = prioritize line spacing
-        boolean attemptForLineSpacingOnly = true;
-        while (true) {
-            lines = calcLines.apply(currentFontSize);
-            float fontMetricsHeight = sheet.getFontHeight(currentFontSize);
-            actualLineHeight = fontMetricsHeight * currentLineSpacingFactor;
+        return scaleText(height, calcLines, sheet::getFontHeight);
+    }
 
-            if (actualLineHeight * lines < height) {
-                // Text fits! break the loop
-                break;
-            }
+    /**
+     * Finds the font size and line height as {@link #scaleText(double, Function)} does, with the height of the
+     * font given by a function instead of the sheet.
+     *
+     * @param height     The height of the region the text needs to fit in
+     * @param calcLines  A supplier for the number of lines at a font size
+     * @param fontHeight The vertical space taken up by a line of text at a font size
+     * @return A tuple of the new font height and line height, in that order
+     */
+    static float[] scaleText(double height, Function<Float, Integer> calcLines, Function<Float, Float> fontHeight) {
+        Map<Float, Integer> lineCounts = new HashMap<>();
+        Predicate<float[]> fits = attempt -> fontHeight.apply(attempt[0]) * attempt[1]
+              * lineCounts.computeIfAbsent(attempt[0], calcLines) < height;
 
+        List<float[]> alternateAttempts = alternateReductionAttempts();
+        float[] result = alternateAttempts.get(0);
+        if (!fits.test(result)) {
+            result = null;
             // We try first to reduce the line spacing factor to see if it is enough
-            // to fit the text. If it fails, we rollback and we start an alternate
-            // cycle of attempts between font and line spacing.
-            if (attemptForLineSpacingOnly) {
-                attemptForLineSpacingOnly = false;
-                boolean fitFoundInSpecialPhase = false;
-                final float originalLineSpacingFactor = currentLineSpacingFactor;
-                while (true) {
-                    currentLineSpacingFactor = Math.max(MIN_LINE_SPACING, currentLineSpacingFactor - LINE_SPACING_REDUCTION_STEP);
-                    if (currentLineSpacingFactor < MIN_LINE_SPACING_IN_SPECIAL_ATTEMPTS) {
-                        // Too much reduction, we failed
-                        break;
-                    }
-                    actualLineHeight = fontMetricsHeight * currentLineSpacingFactor;
-                    if (actualLineHeight * lines < height) {
-                        fitFoundInSpecialPhase = true;
-                        break;
-                    }
+            // to fit the text. These attempts keep the font size, so the line count is already known.
+            for (float[] attempt : lineSpacingOnlyAttempts()) {
+                if (fits.test(attempt)) {
+                    result = attempt;
+                    break;
                 }
-                if (fitFoundInSpecialPhase) {
-                    // We found the fit! The main loop will to the final check.
-                    continue;
-                } else {
-                    // Rollback
-                    currentLineSpacingFactor = originalLineSpacingFactor;
-                    actualLineHeight = fontMetricsHeight * currentLineSpacingFactor;
+            }
+            if (result == null) {
+                // Bisect the alternate cycle for the first attempt that fits. If none does, we use the last one.
+                int low = 1;
+                int high = alternateAttempts.size() - 1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (fits.test(alternateAttempts.get(mid))) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
                 }
+                result = alternateAttempts.get(high);
             }
+        }
+        return new float[] { result[0], fontHeight.apply(result[0]) * result[1] };
+    }
 
+    /**
+     * @return The font size and line spacing pairs tried when only reducing the line spacing, in order
+     */
+    private static List<float[]> lineSpacingOnlyAttempts() {
+        List<float[]> attempts = new ArrayList<>();
+        float lineSpacingFactor = INITIAL_LINE_SPACING;
+        while (true) {
+            lineSpacingFactor = Math.max(MIN_LINE_SPACING, lineSpacingFactor - LINE_SPACING_REDUCTION_STEP);
+            if (lineSpacingFactor < MIN_LINE_SPACING_IN_SPECIAL_ATTEMPTS) {
+                return attempts;
+            }
+            attempts.add(new float[] { FONT_SIZE_MEDIUM, lineSpacingFactor });
+        }
+    }
 
+    /**
+     * @return The font size and line spacing pairs of the alternate reduction cycle, in order, starting with the
+     *       initial font size and line spacing
+     */
+    private static List<float[]> alternateReductionAttempts() {
+        List<float[]> attempts = new ArrayList<>();
+        float fontSize = FONT_SIZE_MEDIUM;
+        float lineSpacingFactor = INITIAL_LINE_SPACING;
+        int alternateReductionState = 0; // 0 = prioritize font size, 1 = prioritize line spacing
+        attempts.add(new float[] { fontSize, lineSpacingFactor });
+        while (true) {
             boolean reductionMade = false;
-            // This is the alternate reduction cycle between font size and line spacing factor
             if (alternateReductionState == 0) { // Prioritize reducing font size
-                if (currentFontSize > MIN_FONT_SIZE) {
-                    currentFontSize = Math.max(MIN_FONT_SIZE, currentFontSize - FONT_SIZE_REDUCTION_STEP);
+                if (fontSize > MIN_FONT_SIZE) {
+                    fontSize = Math.max(MIN_FONT_SIZE, fontSize - FONT_SIZE_REDUCTION_STEP);
                     reductionMade = true;
-                } else if (currentLineSpacingFactor > MIN_LINE_SPACING) {
-                    currentLineSpacingFactor = Math.max(MIN_LINE_SPACING, currentLineSpacingFactor - LINE_SPACING_REDUCTION_STEP);
+                } else if (lineSpacingFactor > MIN_LINE_SPACING) {
+                    lineSpacingFactor = Math.max(MIN_LINE_SPACING, lineSpacingFactor - LINE_SPACING_REDUCTION_STEP);
                     reductionMade = true;
                 }
             } else { // Prioritize reducing line spacing factor
-                if (currentLineSpacingFactor > MIN_LINE_SPACING) {
-                    currentLineSpacingFactor = Math.max(MIN_LINE_SPACING, currentLineSpacingFactor - LINE_SPACING_REDUCTION_STEP);
+                if (lineSpacingFactor > MIN_LINE_SPACING) {
+                    lineSpacingFactor = Math.max(MIN_LINE_SPACING, lineSpacingFactor - LINE_SPACING_REDUCTION_STEP);
                     reductionMade = true;
-                } else if (currentFontSize > MIN_FONT_SIZE) {
-                    currentFontSize = Math.max(MIN_FONT_SIZE, currentFontSize - FONT_SIZE_REDUCTION_STEP);
+                } else if (fontSize > MIN_FONT_SIZE) {
+                    fontSize = Math.max(MIN_FONT_SIZE, fontSize - FONT_SIZE_REDUCTION_STEP);
                     reductionMade = true;
                 }
             }
-            
+
             alternateReductionState++;
             if (alternateReductionState > RATIO_FONT_SIZE_LINE_SPACING_ATTEMPTS) {
                 alternateReductionState = 0;
             }
 
             if (!reductionMade) {
-                // No more reductions possible, break the loop
-                break;
+                return attempts;
             }
+            attempts.add(new float[] { fontSize, lineSpacingFactor });
         }
-        return new float[] { currentFontSize, actualLineHeight };
     }
 
     /**
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import megamek.common.annotations.Nullable;
+
+/**
+ * A list of record sheets whose page numbering is planned up front, but whose sheets are only created when they
+ * are first accessed. Units that need to be copied or modified before printing can be prepared by the sheet
+ * factory, so large print jobs and exports don't hold all the prepared units and sheets at once.
+ *
+ * <p>Sheets are kept once created until they are removed from the list or released. The print and export tasks
+ * remove each sheet as it is rendered, so only the sheets near the one being rendered exist at any time. Page counts
+ * and progress callbacks are available through {@link #entries(List)} without creating the sheets.</p>
+ */
+public final class LazySheetList extends AbstractList<PrintRecordSheet> implements RandomAccess {
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * A planned sheet.
+     */
+    public static final class Entry {
+        private final int firstPage;
+        private final int pageCount;
+        private final @Nullable Supplier<? extends PrintRecordSheet> factory;
+        private @Nullable PrintRecordSheet sheet;
+        private @Nullable Consumer<Integer> callback;
+
+        private Entry(int firstPage, int pageCount, Supplier<? extends PrintRecordSheet> factory) {
+            this.firstPage = firstPage;
+            this.pageCount = pageCount;
+            this.factory = factory;
+        }
+
+        private Entry(PrintRecordSheet sheet) {
+            factory = null;
+            firstPage = sheet.getFirstPage();
+            pageCount = sheet.getPageCount();
+            this.sheet = sheet;
+        }
+
+        /**
+         * @return The index of the first page of the sheet in the print job
+         */
+        public int getFirstPage() {
+            return firstPage;
+        }
+
+        /**
+         * @return The number of pages of the sheet
+         */
+        public int getPageCount() {
+            return pageCount;
+        }
+
+        /**
+         * Sets the progress callback of the sheet, now if it exists or when it is created.
+         *
+         * @param callback The callback for the sheet
+         */
+        public synchronized void setCallback(Consumer<Integer> callback) {
+            this.callback = callback;
+            if (sheet != null) {
+                sheet.setCallback(callback);
+            }
+        }
+
+        /**
+         * @return The sheet, which is created on the first call
+         */
+        public synchronized PrintRecordSheet getSheet() {
+            if (sheet == null) {
+                sheet = factory.get();
+                if (callback != null) {
+                    sheet.setCallback(callback);
+                }
+            }
+            return sheet;
+        }
+
+        /**
+         * Drops the sheet of a planned entry, so it can be reclaimed. It is created again on the next call to
+         * {@link #getSheet()}. Entries that wrap an existing sheet keep it.
+         */
+        public synchronized void releaseSheet() {
+            if (factory != null) {
+                sheet = null;
+            }
+        }
+    }
+
+    /**
+     * Adds a sheet that is created when it is first accessed.
+     *
+     * @param firstPage The index of the first page of the sheet in the print job
+     * @param pageCount The number of pages of the sheet
+     * @param factory   Creates the sheet. This is called again only if the sheet has been released.
+     */
+    public void addLazy(int firstPage, int pageCount, Supplier<? extends PrintRecordSheet> factory) {
+        modCount++;
+        entries.add(new Entry(firstPage, pageCount, factory));
+    }
+
+    @Override
+    public boolean add(PrintRecordSheet sheet) {
+        modCount++;
+        return entries.add(new Entry(sheet));
+    }
+
+    @Override
+    public PrintRecordSheet get(int index) {
+        return entries.get(index).getSheet();
+    }
+
+    @Override
+    public PrintRecordSheet remove(int index) {
+        modCount++;
+        return entries.remove(index).getSheet();
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        entries.clear();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the planned sheets of a list without creating them. For any other list of sheets, the entries wrap
+     * the existing sheets.
+     *
+     * @param sheets A list of sheets
+     * @return The entries for the sheets, in order
+     */
+    public static List<Entry> entries(List<PrintRecordSheet> sheets) {
+        if (sheets instanceof LazySheetList lazy) {
+            return new ArrayList<>(lazy.entries);
+        }
+        List<Entry> result = new ArrayList<>(sheets.size());
+        for (PrintRecordSheet sheet : sheets) {
+            result.add(new Entry(sheet));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import megamek.common.MekSummary;
+import megamek.common.eras.Eras;
+
+/**
+ * Command line options of the {@link CGLMassPrinter}. The filters select which units of the unit cache are exported;
+ * a unit has to pass all filters that are set.
+ */
+class MassPrintOptions {
+    static final String USAGE = """
+            Usage: CGLMassPrinter [options]
+              --output <dir>       Directory to write the record sheets to (default: sheets)
+              --threads <n>        Number of units to export concurrently (default: rs_export_threads or one per core)
+              --type <types>       Comma-separated unit types to export, e.g. Mek,Tank,BattleArmor
+              --from <name>        Only export units whose name sorts at or after this prefix
+              --to <name>          Only export units whose name sorts at or before this prefix
+              --era <codes>        Comma-separated era codes, by the unit's intro year
+              --manifest <file>    Inputs of the finished units, to skip unchanged units (default: <output>/manifest.tsv)
+              --report <file>      Per-unit timing and error report (default: <output>/report.csv)
+              --restart            Ignore the manifest and export all matching units again
+              --help               Show this message
+            """;
+
+    File outputDir = new File("sheets");
+    int threads = RecordSheetExporter.defaultThreadCount();
+    Set<String> unitTypes = new HashSet<>();
+    String fromName;
+    String toName;
+    Set<String> eras = new HashSet<>();
+    File manifestFile;
+    File reportFile;
+    boolean restart;
+    boolean help;
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args The command line arguments
+     * @return The parsed options
+     * @throws IllegalArgumentException if an argument is unknown or malformed
+     */
+    static MassPrintOptions parse(String... args) {
+        MassPrintOptions options = new MassPrintOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--output" -> options.outputDir = new File(value(args, ++i, arg));
+                case "--threads" -> {
+                    try {
+                        options.threads = Integer.parseInt(value(args, ++i, arg));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Invalid thread count: " + args[i]);
+                    }
+                    if (options.threads < 1) {
+                        throw new IllegalArgumentException("Thread count must be at least 1");
+                    }
+                }
+                case "--type" -> options.unitTypes = splitList(value(args, ++i, arg));
+                case "--from" -> options.fromName = value(args, ++i, arg).toUpperCase(Locale.ROOT);
+                case "--to" -> options.toName = value(args, ++i, arg).toUpperCase(Locale.ROOT);
+                case "--era" -> options.eras = splitList(value(args, ++i, arg));
+                case "--manifest" -> options.manifestFile = new File(value(args, ++i, arg));
+                case "--report" -> options.reportFile = new File(value(args, ++i, arg));
+                case "--restart" -> options.restart = true;
+                case "--help", "-h" -> options.help = true;
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (options.manifestFile == null) {
+            options.manifestFile = new File(options.outputDir, "manifest.tsv");
+        }
+        if (options.reportFile == null) {
+            options.reportFile = new File(options.outputDir, "report.csv");
+        }
+        return options;
+    }
+
+    private static String value(String[] args, int index, String arg) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + arg);
+        }
+        return args[index];
+    }
+
+    private static Set<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(s -> s.replace(" ", ""))
+                .filter(s -> !s.isEmpty())
+                .map(s -> s.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param summary The unit to check
+     * @return Whether the unit passes all filters
+     */
+    boolean matches(MekSummary summary) {
+        if (!unitTypes.isEmpty() && !unitTypes.contains(normalizeType(summary.getUnitType()))) {
+            return false;
+        }
+        String name = summary.getName().toUpperCase(Locale.ROOT);
+        if ((fromName != null) && (name.compareTo(fromName) < 0)) {
+            return false;
+        }
+        // Compare only the prefix so "--to C" includes every unit starting with C
+        if ((toName != null) && (name.substring(0, Math.min(name.length(), toName.length())).compareTo(toName) > 0)) {
+            return false;
+        }
+        return eras.isEmpty() || eras.contains(Eras.getEra(summary.getYear()).code().toUpperCase(Locale.ROOT));
+    }
+
+    private static String normalizeType(String unitType) {
+        return (unitType == null) ? "" : unitType.replace(" ", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.fop.apps.io.ResourceResolverFactory;
+import org.apache.fop.configuration.Configuration;
+import org.apache.fop.configuration.DefaultConfigurationBuilder;
+import org.apache.fop.fonts.DefaultFontConfig;
+import org.apache.fop.fonts.DefaultFontConfigurator;
+import org.apache.fop.fonts.EmbedFontInfo;
+import org.apache.fop.fonts.FontCacheManagerFactory;
+import org.apache.fop.fonts.FontDetectorFactory;
+import org.apache.fop.fonts.FontManager;
+import org.apache.fop.fonts.FontTriplet;
+import org.apache.fop.svg.PDFTranscoder;
+
+import megamek.logging.MMLogger;
+import megameklab.util.CConfig;
+
+/**
+ * Supplies configured {@link PDFTranscoder}s for exporting record sheets to PDF. The FOP configuration is built once
+ * per JVM. While doing so the font directories are scanned a single time and the result is written back into the
+ * configuration as an explicit list of fonts, so individual transcodes do not have to walk the font directories
+ * again. Font metrics are kept in a persistent cache file in the configuration directory.
+ *
+ * <p>Transcoders are not thread safe, so each thread gets its own instance which is reused for every page it
+ * exports.</p>
+ */
+public final class PDFTranscoderProvider {
+    private static final MMLogger logger = MMLogger.create(PDFTranscoderProvider.class);
+
+    /** FOP's font metrics cache, which persists between runs */
+    private static final String FONT_CACHE_FILE = CConfig.CONFIG_DIR + "/fop-fonts.cache";
+
+    /** The default for the transcoder is 96 dpi, but the source document is 72 dpi. */
+    private static final float PIXEL_UNIT_TO_MILLIMETER = 0.352778f;
+
+    private static final String FALLBACK_CONFIG = "<fop version=\"1.0\"><fonts><auto-detect/></fonts></fop>";
+
+    private static volatile Configuration configuration;
+
+    private static final ThreadLocal<PDFTranscoder> transcoders = ThreadLocal.withInitial(() -> {
+        PDFTranscoder transcoder = new PDFTranscoder();
+        transcoder.addTranscodingHint(PDFTranscoder.KEY_AUTO_FONTS, true);
+        transcoder.addTranscodingHint(PDFTranscoder.KEY_PIXEL_UNIT_TO_MILLIMETER, PIXEL_UNIT_TO_MILLIMETER);
+        try {
+            transcoder.configure(getConfiguration());
+        } catch (Exception ex) {
+            logger.error("Failed to configure PDF transcoder", ex);
+        }
+        return transcoder;
+    });
+
+    /**
+     * @return A configured transcoder for use by the current thread
+     */
+    public static PDFTranscoder getTranscoder() {
+        return transcoders.get();
+    }
+
+    /**
+     * @return The shared FOP configuration, building it on first use
+     */
+    public static Configuration getConfiguration() throws Exception {
+        Configuration config = configuration;
+        if (config == null) {
+            synchronized (PDFTranscoderProvider.class) {
+                config = configuration;
+                if (config == null) {
+                    config = buildConfiguration();
+                    configuration = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    private static Configuration buildConfiguration() throws Exception {
+        String configXml = injectSystemFontDirectories(loadConfigXml());
+        DefaultConfigurationBuilder cfgBuilder = new DefaultConfigurationBuilder();
+        Configuration config = cfgBuilder.build(new ByteArrayInputStream(configXml.getBytes(StandardCharsets.UTF_8)));
+        try {
+            long start = System.currentTimeMillis();
+            List<EmbedFontInfo> fonts = resolveFonts(config);
+            String resolvedXml = createResolvedConfigXml(fonts);
+            logger.info("Registered {} fonts for PDF export in {} ms", fonts.size(),
+                    System.currentTimeMillis() - start);
+            return cfgBuilder.build(new ByteArrayInputStream(resolvedXml.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            // The unresolved configuration still works; it is just slower
+            logger.warn("Failed to build font registry for PDF export; font directories will be scanned per page",
+                    ex);
+            return config;
+        }
+    }
+
+    private static String loadConfigXml() {
+        try (InputStream configStream = PrintRecordSheet.class.getResourceAsStream("fop-config.xml")) {
+            return new String(configStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException | NullPointerException e) {
+            logger.warn("Failed to load fop-config.xml");
+            return FALLBACK_CONFIG;
+        }
+    }
+
+    /**
+     * Adds the OS font directories that exist on this machine to the font configuration.
+     */
+    private static String injectSystemFontDirectories(String configXml) {
+        String osName = System.getProperty("os.name").toLowerCase();
+        StringBuilder systemFontDirectories = new StringBuilder();
+        List<String> directories = new ArrayList<>();
+        if (osName.contains("windows")) {
+            String winDir = System.getenv("WINDIR");
+            if (winDir == null) {
+                winDir = System.getenv("SystemRoot");
+            }
+            if (winDir == null) {
+                winDir = "C:\\Windows";
+            }
+            directories.add(winDir + "\\Fonts");
+            directories.add(System.getenv("LOCALAPPDATA") + "\\Microsoft\\Windows\\Fonts");
+        } else if (osName.contains("mac")) {
+            directories.add("/System/Library/Fonts");
+            directories.add("/Library/Fonts");
+            directories.add("~/Library/Fonts");
+        } else {
+            directories.add("/usr/share/fonts");
+            directories.add("/usr/local/share/fonts");
+            directories.add("~/.local/share/fonts");
+        }
+        // Add only directories that exist
+        for (String path : directories) {
+            File fontDir = new File(path);
+            if (fontDir.exists() && fontDir.isDirectory()) {
+                systemFontDirectories.append("<directory recursive=\"true\">").append(path).append("</directory>");
+            }
+        }
+        int insertPoint = configXml.indexOf("</fonts>");
+        if (insertPoint > 0) {
+            return configXml.substring(0, insertPoint) + systemFontDirectories + configXml.substring(insertPoint);
+        } else {
+            logger.warn("Failed to inject system font directories into fop-config.xml");
+            return configXml;
+        }
+    }
+
+    /**
+     * Runs FOP's font detection once for the given configuration, using the persistent font cache.
+     */
+    private static List<EmbedFontInfo> resolveFonts(Configuration config) throws Exception {
+        FontManager fontManager = new FontManager(
+                ResourceResolverFactory.createDefaultInternalResourceResolver(new File(".").getAbsoluteFile().toURI()),
+                FontDetectorFactory.createDefault(), FontCacheManagerFactory.createDefault());
+        fontManager.setCacheFile(new File(FONT_CACHE_FILE).getAbsoluteFile().toURI());
+        DefaultFontConfig fontConfig = new DefaultFontConfig.DefaultFontConfigParser().parse(config, false);
+        List<EmbedFontInfo> fonts = new DefaultFontConfigurator(fontManager, null, false).configure(fontConfig);
+        fontManager.saveCache();
+        return fonts;
+    }
+
+    /**
+     * Creates a configuration that lists each detected font explicitly instead of the directories to search.
+     */
+    private static String createResolvedConfigXml(List<EmbedFontInfo> fonts) {
+        StringBuilder sb = new StringBuilder("<fop version=\"1.0\"><fonts>");
+        for (EmbedFontInfo font : fonts) {
+            if ((font.getEmbedURI() == null) || font.getFontTriplets().isEmpty()) {
+                continue;
+            }
+            sb.append("<font embed-url=\"").append(escape(font.getEmbedURI().toString())).append('"');
+            if (font.getSubFontName() != null) {
+                sb.append(" sub-font=\"").append(escape(font.getSubFontName())).append('"');
+            }
+            sb.append(" kerning=\"").append(font.getKerning() ? "yes" : "no").append("\">");
+            for (FontTriplet triplet : font.getFontTriplets()) {
+                sb.append("<font-triplet name=\"").append(escape(triplet.getName()))
+                        .append("\" style=\"").append(escape(triplet.getStyle()))
+                        .append("\" weight=\"").append(triplet.getWeight()).append("\"/>");
+            }
+            sb.append("</font>");
+        }
+        return sb.append("</fonts></fop>").toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private PDFTranscoderProvider() {
+        throw new IllegalStateException();
+    }
+}
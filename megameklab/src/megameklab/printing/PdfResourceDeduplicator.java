@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+/**
+ * Shares identical resources between the pages of a merged PDF. Each page of an export is transcoded as a separate
+ * document with its own copy of the embedded font programs, images and form XObjects, and merging them keeps all
+ * of those copies. This walks the resources of each page as it is appended and replaces every stream whose
+ * dictionary and encoded content match a stream seen on an earlier page with that earlier stream. The replaced
+ * copies are no longer referenced and are not written when the document is saved.
+ *
+ * <p>Nested streams, such as the font file of a font descriptor or the soft mask of an image, are shared before the
+ * stream that refers to them is compared, so form XObjects that only differ in their copies of the same resources
+ * are shared as well. An instance is used for a single merged document by a single thread.</p>
+ */
+final class PdfResourceDeduplicator {
+    /** The stream that is kept for each content hash */
+    private final Map<String, COSStream> canonicalByHash = new HashMap<>();
+    /** The result for every stream already seen, so each stream is only hashed once */
+    private final Map<COSStream, COSStream> resolved = new IdentityHashMap<>();
+    /** Stable numbers for the kept streams, used to describe references to them in the hash of another stream */
+    private final Map<COSStream, Integer> streamIds = new IdentityHashMap<>();
+
+    private int sharedStreams;
+    private long sharedBytes;
+
+    /**
+     * Shares the resources of the page with those of the pages processed before.
+     *
+     * @param page A page of the merged document
+     * @throws IOException If a stream could not be read
+     */
+    void deduplicate(PDPage page) throws IOException {
+        if (page.getCOSObject().getDictionaryObject(COSName.RESOURCES) instanceof COSDictionary resources) {
+            shareNested(resources, new IdentityHashMap<>());
+        }
+    }
+
+    /**
+     * @return The number of stream copies that have been replaced by a shared stream
+     */
+    int getSharedStreams() {
+        return sharedStreams;
+    }
+
+    /**
+     * @return The total encoded length of the stream copies that have been replaced
+     */
+    long getSharedBytes() {
+        return sharedBytes;
+    }
+
+    /**
+     * Replaces all streams contained in the dictionary or array with their shared instances.
+     */
+    private void shareNested(COSBase container, Map<COSBase, Boolean> visited) throws IOException {
+        if (visited.put(container, Boolean.TRUE) != null) {
+            return;
+        }
+        if (container instanceof COSDictionary dictionary) {
+            for (COSName key : new ArrayList<>(dictionary.keySet())) {
+                COSBase value = dereference(dictionary.getItem(key));
+                if (value instanceof COSStream stream) {
+                    COSStream shared = share(stream, visited);
+                    if (shared != stream) {
+                        dictionary.setItem(key, shared);
+                    }
+                } else if ((value instanceof COSDictionary) || (value instanceof COSArray)) {
+                    shareNested(value, visited);
+                }
+            }
+        } else if (container instanceof COSArray array) {
+            for (int i = 0; i < array.size(); i++) {
+                COSBase value = dereference(array.get(i));
+                if (value instanceof COSStream stream) {
+                    COSStream shared = share(stream, visited);
+                    if (shared != stream) {
+                        array.set(i, shared);
+                    }
+                } else if ((value instanceof COSDictionary) || (value instanceof COSArray)) {
+                    shareNested(value, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The shared instance of a stream with the same dictionary and content, which is the stream itself if
+     *       it is the first of its kind
+     */
+    private COSStream share(COSStream stream, Map<COSBase, Boolean> visited) throws IOException {
+        COSStream shared = resolved.get(stream);
+        if (shared != null) {
+            return shared;
+        }
+        // Share the streams this one refers to first, so that its dictionary refers to the shared instances
+        shareNested(stream, visited);
+        String hash = hash(stream);
+        shared = canonicalByHash.putIfAbsent(hash, stream);
+        if (shared == null) {
+            shared = stream;
+            streamIds.put(stream, streamIds.size());
+        } else {
+            sharedStreams++;
+            sharedBytes += stream.getLength();
+        }
+        resolved.put(stream, shared);
+        return shared;
+    }
+
+    private String hash(COSStream stream) throws IOException {
+        MessageDigest digest = newDigest();
+        StringBuilder description = new StringBuilder();
+        describeEntries(stream, description, new IdentityHashMap<>());
+        digest.update(description.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        try (InputStream is = stream.createRawInputStream()) {
+            int read;
+            while ((read = is.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Writes a canonical description of the entries of a dictionary. Nested streams have already been shared at
+     * this point and are described by their number.
+     */
+    private void describeEntries(COSDictionary dictionary, StringBuilder sb, Map<COSBase, Boolean> visited) {
+        if (visited.put(dictionary, Boolean.TRUE) != null) {
+            sb.append("cycle");
+            return;
+        }
+        List<COSName> keys = new ArrayList<>(dictionary.keySet());
+        keys.sort(Comparator.comparing(COSName::getName));
+        sb.append("<<");
+        for (COSName key : keys) {
+            sb.append('/').append(key.getName()).append(' ');
+            describe(dictionary.getItem(key), sb, visited);
+        }
+        sb.append(">>");
+    }
+
+    private void describe(COSBase value, StringBuilder sb, Map<COSBase, Boolean> visited) {
+        value = dereference(value);
+        if (value instanceof COSStream stream) {
+            Integer id = streamIds.get(resolved.getOrDefault(stream, stream));
+            sb.append("stream#").append((id == null) ? "?" + System.identityHashCode(stream) : id);
+        } else if (value instanceof COSDictionary dictionary) {
+            describeEntries(dictionary, sb, visited);
+        } else if (value instanceof COSArray array) {
+            sb.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                describe(array.get(i), sb, visited);
+                sb.append(' ');
+            }
+            sb.append(']');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    private static COSBase dereference(COSBase value) {
+        return (value instanceof COSObject object) ? object.getObject() : value;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
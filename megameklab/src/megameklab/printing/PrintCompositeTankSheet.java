@@ -66,6 +66,11 @@ public class PrintCompositeTankSheet extends PrintRecordSheet {
         return retVal;
     }
 
+    @Override
+    protected List<?> getContentSources() {
+        return (tank2 == null) ? List.of(tank1) : List.of(tank1, tank2);
+    }
+
     @Override
     protected @Nullable Document loadTemplate(int pageIndex, PageFormat pageFormat) {
         DOMImplementation domImpl = SVGDOMImplementation.getDOMImplementation();
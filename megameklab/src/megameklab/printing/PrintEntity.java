@@ -78,6 +78,11 @@ public abstract class PrintEntity extends PrintRecordSheet {
         return Collections.singletonList(entityName());
     }
 
+    @Override
+    protected List<?> getContentSources() {
+        return List.of(getEntity());
+    }
+
     /**
      * When printing from a MUL the pilot data is filled in unless the option has been disabled. This
      * allows a series of blank record sheets to be generated without including the generated pilot data.
@@ -15,26 +15,16 @@ package megameklab.printing;
 
 import java.awt.geom.Rectangle2D;
 import java.awt.print.PageFormat;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
-import org.apache.batik.anim.dom.SVGDOMImplementation;
-import org.apache.batik.dom.util.SAXDocumentFactory;
 import org.apache.batik.util.SVGConstants;
-import org.apache.batik.util.XMLResourceDescriptor;
-import org.w3c.dom.DOMImplementation;
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 import org.w3c.dom.svg.SVGRectElement;
 
 import megamek.common.*;
-import megamek.common.annotations.Nullable;
 import megamek.common.equipment.MiscMounted;
 import megamek.logging.MMLogger;
 import megameklab.printing.reference.*;
@@ -325,12 +315,11 @@ public class PrintMek extends PrintEntity {
             }
         }
 
-        NodeList nl = loadPipSVG(String.format("data/images/recordsheets/biped_pips/Armor_%s_%d_Humanoid.svg",
-                locAbbr, mek.getOArmor(loc, rear)));
-        if (null == nl) {
+        String[][] pattern = BipedPipBank.getInstance().armorPips(locAbbr, mek.getOArmor(loc, rear));
+        if (null == pattern) {
             return false;
         }
-        return copyPipPattern(nl, CANON_ARMOR_PIPS, getArmorDamage(loc, rear));
+        return copyPipPattern(pattern, CANON_ARMOR_PIPS, getArmorDamage(loc, rear));
     }
 
     private boolean loadISPips() {
@@ -351,57 +340,22 @@ public class PrintMek extends PrintEntity {
 
     private boolean loadISPips(int loc) {
         String locAbbr = mek.getLocationAbbr(loc);
-        NodeList nl = loadPipSVG(String.format("data/images/recordsheets/biped_pips/BipedIS%d_%s.svg",
-                (int) mek.getWeight(), locAbbr));
-        if (null == nl) {
+        String[][] pattern = BipedPipBank.getInstance().structurePips((int) mek.getWeight(), locAbbr);
+        if (null == pattern) {
             return false;
         }
-        return copyPipPattern(nl, CANON_STRUCTURE_PIPS, getStructureDamage(loc));
+        return copyPipPattern(pattern, CANON_STRUCTURE_PIPS, getStructureDamage(loc));
     }
 
-    private boolean copyPipPattern(NodeList nl, String parentName, int damage) {
+    private boolean copyPipPattern(String[][] pattern, String parentName, int damage) {
         Element parent = getSVGDocument().getElementById(parentName);
         if (null == parent) {
             return false;
         }
-        // Append nodes and apply damage
-        int remainingDamage = damage;
-        for (int i = 0; i < nl.getLength(); i++) {
-            if (nl.item(i) instanceof Element el) {
-                if (remainingDamage > 0) {
-                    remainingDamage--;
-                    // Set the fill attribute to black for damaged pips
-                    el.setAttributeNS(null, SVGConstants.SVG_FILL_ATTRIBUTE, getDamageFillColor());
-                }
-                parent.appendChild(getSVGDocument().importNode(el, true)); // Final append
-            }
-        }
+        BipedPipBank.addPips(pattern, parent, damage, getDamageFillColor());
         return true;
     }
 
-    private @Nullable NodeList loadPipSVG(String filename) {
-        File f = new File(filename);
-        if (!f.exists()) {
-            return null;
-        }
-        Document doc;
-        try (InputStream is = new FileInputStream(f)) {
-            DOMImplementation impl = SVGDOMImplementation.getDOMImplementation();
-            final String parser = XMLResourceDescriptor.getXMLParserClassName();
-            SAXDocumentFactory df = new SAXDocumentFactory(impl, parser);
-            doc = df.createDocument(f.toURI().toASCIIString(), is);
-        } catch (Exception e) {
-            logger.error("Failed to open pip SVG " + f.getName() + ": "+ e.getMessage(), e);
-            return null;
-        }
-
-        if (doc == null) {
-            logger.error("Document is null for svg file: " + f.getName());
-            return null;
-        }
-        return doc.getElementsByTagName(SVGConstants.SVG_PATH_TAG);
-    }
-
     // Mek armor and structure pips require special handling for rear armor and
     // superheavy head armor/IS
     @Override
@@ -15,12 +15,10 @@
 package megameklab.printing;
 
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
 import java.awt.print.PageFormat;
 import java.awt.print.Printable;
 import java.io.ByteArrayInputStream;
@@ -29,45 +27,34 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.Path;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Consumer;
 
-import javax.imageio.ImageIO;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-
 import org.apache.batik.anim.dom.SVGDOMImplementation;
 import org.apache.batik.anim.dom.SVGLocatableSupport;
 import org.apache.batik.anim.dom.SVGOMElement;
 import org.apache.batik.bridge.BridgeContext;
 import org.apache.batik.bridge.GVTBuilder;
 import org.apache.batik.bridge.UserAgentAdapter;
-import org.apache.batik.dom.util.SAXDocumentFactory;
 import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.svggen.SVGGeneratorContext;
 import org.apache.batik.svggen.SVGGraphics2D;
 import org.apache.batik.transcoder.TranscoderInput;
 import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.util.SVGConstants;
-import org.apache.batik.util.XMLResourceDescriptor;
-import org.apache.fop.configuration.Configuration;
-import org.apache.fop.configuration.DefaultConfigurationBuilder;
 import org.apache.fop.svg.PDFTranscoder;
 import org.w3c.dom.*;
 import org.w3c.dom.svg.SVGDocument;
 import org.w3c.dom.svg.SVGRectElement;
 
+import megamek.common.Configuration;
 import megamek.common.EquipmentType;
 import megamek.common.annotations.Nullable;
-import megamek.common.util.ImageUtil;
 import megamek.logging.MMLogger;
 import megameklab.printing.reference.ReferenceTable;
 import megameklab.util.CConfig;
@@ -112,6 +99,10 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
     private final int firstPage;
     protected final RecordSheetOptions options;
     private Document svgDocument;
+    /** The last document loaded from a cached base layer, which does not need to be prepared again */
+    private Document baseLayer;
+    /** Elements of the current document by class name, built when first needed */
+    private Map<String, List<Element>> classIndex;
     private SVGGraphics2D svgGenerator;
     // Used to update progress bar
     private Consumer<Integer> callback;
@@ -147,6 +138,7 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
 
     public final void setSVGDocument(final @Nullable Document svgDocument) {
         this.svgDocument = svgDocument;
+        classIndex = null;
     }
 
     /**
@@ -256,16 +248,22 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
         }
     }
 
-    private void subColorElements() {
-        Element element = getSVGDocument().getElementById(RS_TEMPLATE);
+    private void subColorElements(Document doc) {
+        Element element = doc.getElementById(RS_TEMPLATE);
         if (element != null) {
             String style = element.getAttributeNS(null, SVGConstants.SVG_STYLE_ATTRIBUTE);
             for (String field : style.split(";")) {
                 if (field.startsWith(MML_COLOR_ELEMENTS + ":")) {
                     String[] ids = field.substring(field.indexOf(":") + 1).split(",");
                     for (String id : ids) {
-                        hideElement(id + "Color", !options.useColor());
-                        hideElement(id + "BW", options.useColor());
+                        Element color = doc.getElementById(id + "Color");
+                        if (color != null) {
+                            hideElement(color, !options.useColor());
+                        }
+                        Element bw = doc.getElementById(id + "BW");
+                        if (bw != null) {
+                            hideElement(bw, options.useColor());
+                        }
                     }
                 }
             }
@@ -273,38 +271,64 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
     }
 
     /**
-     * Finds elements by class name (using XPath).
+     * Applies the parts of the print options that only affect the template itself: the typeface and the choice
+     * between color and black and white elements. Templates loaded from file are cached with these changes
+     * already applied.
+     *
+     * @param doc The template document
+     */
+    private void prepareBaseLayer(Document doc) {
+        subFonts((SVGDocument) doc);
+        subColorElements(doc);
+    }
+
+    /**
+     * Finds elements by class name. The first call for a document indexes the
+     * class attributes of all its elements in a single pass, so it should not be
+     * called before the document is complete.
      *
      * @param className The class name to search for.
      * @return A list of matching elements.
      */
-    private ArrayList<Element> getElementsByClass(String className) {
-        ArrayList<Element> ret = new ArrayList<>();
+    private List<Element> getElementsByClass(String className) {
         if (className == null || className.isEmpty() || getSVGDocument() == null) {
-            return ret;
+            return Collections.emptyList();
+        }
+        if (classIndex == null) {
+            classIndex = buildClassIndex(getSVGDocument());
         }
+        return classIndex.getOrDefault(className, Collections.emptyList());
+    }
 
-        try {
-            XPathFactory xPathfactory = XPathFactory.newInstance();
-            XPath xpath = xPathfactory.newXPath();
-            String expressionStr = "//*[contains(concat(' ', normalize-space(@class), ' '), ' " + className + " ')]";
-            XPathExpression expr = xpath.compile(expressionStr);
-
-            NodeList nodeList = (NodeList) expr.evaluate(getSVGDocument(), XPathConstants.NODESET);
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                if (nodeList.item(i) instanceof Element element) {
-                    ret.add(element);
+    /**
+     * Walks the document once and collects the elements for each class name in
+     * their class attributes, in document order.
+     */
+    private static Map<String, List<Element>> buildClassIndex(Document doc) {
+        Map<String, List<Element>> index = new HashMap<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        if (doc.getDocumentElement() != null) {
+            stack.push(doc.getDocumentElement());
+        }
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node instanceof Element element) {
+                // Some elements are created with setAttribute, so look the attribute up by name rather than namespace
+                String classes = element.getAttribute(SVGConstants.SVG_CLASS_ATTRIBUTE);
+                if (!classes.isBlank()) {
+                    for (String className : classes.trim().split("\\s+")) {
+                        index.computeIfAbsent(className, k -> new ArrayList<>()).add(element);
+                    }
+                }
+            }
+            // Push in reverse so children are visited in document order
+            for (Node child = node.getLastChild(); child != null; child = child.getPreviousSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    stack.push(child);
                 }
             }
-
-        } catch (XPathExpressionException e) {
-            logger.error("XPath error finding elements by class '" + className + "': " + e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error(
-                    "Unexpected error finding elements by class '" + className + "' using XPath: " + e.getMessage(), e);
         }
-
-        return ret;
+        return index;
     }
 
     private void shadeTableRows() {
@@ -355,7 +379,9 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
     }
 
     /**
-     * Creates a {@link Document} from an svg image file
+     * Creates a {@link Document} from an svg image file. The parsed file is kept in the
+     * {@link SVGTemplateCache} as a base layer with the typeface and colors of the options already
+     * applied, so subsequent pages using the same template only need to copy it.
      *
      * @param filename The name of the SVG file
      * @return The document object
@@ -368,14 +394,9 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
             return null;
         }
 
-        Document document = null;
-        try (InputStream is = Files.newInputStream(filePath)) {
-            SAXDocumentFactory df = new SAXDocumentFactory(SVGDOMImplementation.getDOMImplementation(),
-                    XMLResourceDescriptor.getXMLParserClassName());
-            document = df.createDocument(filePath.toUri().toASCIIString(), is);
-        } catch (Exception ex) {
-            logger.error("", ex);
-        }
+        Document document = SVGTemplateCache.getInstance().getDocument(filePath,
+                getTypeface() + (options.useColor() ? ",color" : ",bw"), this::prepareBaseLayer);
+        baseLayer = document;
 
         if (document == null) {
             logger
@@ -425,8 +446,10 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
         if (getSVGDocument() == null) {
             return false;
         }
-        subFonts((SVGDocument) getSVGDocument());
-        subColorElements();
+        if (getSVGDocument() != baseLayer) {
+            prepareBaseLayer(getSVGDocument());
+        }
+        baseLayer = null;
         SVGGeneratorContext context = SVGGeneratorContext.createDefault(getSVGDocument());
         svgGenerator = new SVGGraphics2D(context, false);
         double ratio = Math.min(pageFormat.getImageableWidth() / (options.getPaperSize().pxWidth - 36),
@@ -490,10 +513,10 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
     public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) {
         Graphics2D g2d = (Graphics2D) graphics;
         if (null != g2d) {
-            if (!createDocument(pageIndex, pageFormat, true)) {
+            GraphicsNode node = preparePage(pageIndex, pageFormat);
+            if (node == null) {
                 return NO_SUCH_PAGE;
             }
-            GraphicsNode node = build();
             node.paint(g2d);
         }
         if (callback != null) {
@@ -502,75 +525,110 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
         return PAGE_EXISTS;
     }
 
-    public @Nullable InputStream exportPDF(int pageNumber, PageFormat pageFormat) throws Exception {
-        if (!createDocument(pageNumber + firstPage, pageFormat, true)) {
+    /**
+     * Creates the document for a page and builds the graphics tree for printing it. The tree does not depend on
+     * the sheet afterward, so it can be painted after the sheet has moved on to another page. Pages of the same
+     * sheet must not be prepared concurrently.
+     *
+     * @param pageIndex  The index of the page in the print job
+     * @param pageFormat The page format
+     * @return The graphics tree for the page, or {@code null} if the document could not be created
+     */
+    @Nullable GraphicsNode preparePage(int pageIndex, PageFormat pageFormat) {
+        if (!createDocument(pageIndex, pageFormat, true)) {
             return null;
         }
-        PDFTranscoder transcoder = new PDFTranscoder();
-        transcoder.addTranscodingHint(PDFTranscoder.KEY_AUTO_FONTS, true);
+        return build();
+    }
 
-        String configXml;
-        try (InputStream configStream = PrintRecordSheet.class.getResourceAsStream("fop-config.xml")) {
-            configXml = new String(configStream.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            logger.warn("Failed to load fop-config.xml");
-            configXml = "<fop version=\"1.0\"><fonts><auto-detect/></fonts></fop>";
+    public @Nullable InputStream exportPDF(int pageNumber, PageFormat pageFormat) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (!exportPDF(pageNumber, pageFormat, output)) {
+            return null;
         }
+        return new ByteArrayInputStream(output.toByteArray());
+    }
 
-        // Define font directories based on OS
-        String osName = System.getProperty("os.name").toLowerCase();
-        StringBuilder systemFontDirectories = new StringBuilder();
-        List<String> directories = new ArrayList<>();
-        if (osName.contains("windows")) {
-            String winDir = System.getenv("WINDIR");
-            if (winDir == null) {
-                winDir = System.getenv("SystemRoot");
-            }
-            if (winDir == null) {
-                winDir = "C:\\Windows";
-            }
-            directories.add(winDir + "\\Fonts");
-            directories.add(System.getenv("LOCALAPPDATA") + "\\Microsoft\\Windows\\Fonts");
-        } else if (osName.contains("mac")) {
-            directories.add("/System/Library/Fonts");
-            directories.add("/Library/Fonts");
-            directories.add("~/Library/Fonts");
-        } else {
-            directories.add("/usr/share/fonts");
-            directories.add("/usr/local/share/fonts");
-            directories.add("~/.local/share/fonts");
-        }
-        // Add only directories that exist
-        for (String path : directories) {
-            File fontDir = new File(path);
-            if (fontDir.exists() && fontDir.isDirectory()) {
-                systemFontDirectories.append("<directory recursive=\"true\">").append(path).append("</directory>");
-            }
-        }
-        int insertPoint = configXml.indexOf("</fonts>");
-        if (insertPoint > 0) {
-            configXml = configXml.substring(0, insertPoint) +
-                    systemFontDirectories.toString() +
-                    configXml.substring(insertPoint);
-        } else {
-            logger.warn("Failed to inject system font directories into fop-config.xml");
+    /**
+     * Renders a single page of the record sheet as a PDF document and writes it directly to the provided stream.
+     *
+     * @param pageNumber The page of this sheet to render, where the first page is zero
+     * @param pageFormat The page format
+     * @param output     The stream to write the PDF document to. The stream is not closed.
+     * @return true if the page was written, false if the document could not be created
+     */
+    public boolean exportPDF(int pageNumber, PageFormat pageFormat, OutputStream output) throws Exception {
+        if (!createDocument(pageNumber + firstPage, pageFormat, true)) {
+            return false;
         }
-        DefaultConfigurationBuilder cfgBuilder = new DefaultConfigurationBuilder();
-        Configuration config = cfgBuilder.build(
-                new ByteArrayInputStream(configXml.getBytes(StandardCharsets.UTF_8)));
-        transcoder.configure(config);
+        transcodePDF(output);
+        reportPageDone(pageNumber);
+        return true;
+    }
 
+    /**
+     * Transcodes the current document to a PDF document.
+     *
+     * @param output The stream to write the PDF document to. The stream is not closed.
+     */
+    void transcodePDF(OutputStream output) throws Exception {
+        PDFTranscoder transcoder = PDFTranscoderProvider.getTranscoder();
         TranscoderInput input = new TranscoderInput(getSVGDocument());
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
         TranscoderOutput transOutput = new TranscoderOutput(output);
-        // The default for the transcoder is 96 dpi, but the source document is 72 dpi.
-        transcoder.addTranscodingHint(PDFTranscoder.KEY_PIXEL_UNIT_TO_MILLIMETER, 0.352778f);
         transcoder.transcode(input, transOutput);
+    }
 
+    /**
+     * Notifies the progress callback that a page of this sheet is done.
+     *
+     * @param pageNumber The page of this sheet, where the first page is zero
+     */
+    void reportPageDone(int pageNumber) {
         if (callback != null) {
             callback.accept(pageNumber + firstPage);
         }
-        return new ByteArrayInputStream(output.toByteArray());
+    }
+
+    /**
+     * Returns the objects this sheet is rendered from. Sheets of the same class that are rendered from the same
+     * instances with the same options produce identical pages, which lets an export render them only once. Sheets
+     * that depend on anything else should return an empty list.
+     *
+     * @return The units on this sheet, or an empty list if the sheet cannot be identified by them
+     */
+    protected List<?> getContentSources() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return A key that is equal for sheets that render identical pages, or {@code null} if the sheet has no
+     *         {@link #getContentSources() content sources}
+     */
+    @Nullable Object getContentKey() {
+        List<?> sources = getContentSources();
+        if (sources.isEmpty()) {
+            return null;
+        }
+        return new ContentKey(getClass(), sources.stream().map(SourceIdentity::new).toList(),
+                options.getFingerprint(), getPageCount());
+    }
+
+    private record ContentKey(Class<?> sheetType, List<SourceIdentity> sources, String options, int pageCount) {
+    }
+
+    /**
+     * Compares sources by identity, since units don't implement equality of their content
+     */
+    private record SourceIdentity(Object source) {
+        @Override
+        public boolean equals(Object other) {
+            return (other instanceof SourceIdentity identity) && (identity.source == source);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(source);
+        }
     }
 
     public GraphicsNode build() {
@@ -1112,28 +1170,28 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
      * @return The height of the bounding box of a text element
      */
     protected float getFontHeight(float fontSize, Font font) {
-        FontMetrics fm = svgGenerator.getFontMetrics(font);
-        return fm.getHeight();
+        return TextMeasurer.getInstance().getHeight(font, svgGenerator.getFontRenderContext(),
+                svgGenerator::getFontMetrics);
     }
 
     public double getNormalTextLength(String text, float fontSize) {
         Font font = getNormalFont(fontSize);
-        return font.getStringBounds(text, svgGenerator.getFontRenderContext()).getWidth();
+        return TextMeasurer.getInstance().getWidth(text, font, svgGenerator.getFontRenderContext());
     }
 
     public double getBoldTextLength(String text, float fontSize) {
         Font font = getBoldFont(fontSize);
-        return font.getStringBounds(text, svgGenerator.getFontRenderContext()).getWidth();
+        return TextMeasurer.getInstance().getWidth(text, font, svgGenerator.getFontRenderContext());
     }
 
     public double getItalicTextLength(String text, float fontSize) {
         Font font = getItalicFont(fontSize);
-        return font.getStringBounds(text, svgGenerator.getFontRenderContext()).getWidth();
+        return TextMeasurer.getInstance().getWidth(text, font, svgGenerator.getFontRenderContext());
     }
 
     public double getBoldItalicTextLength(String text, float fontSize) {
         Font font = getBoldItalicFont(fontSize);
-        return font.getStringBounds(text, svgGenerator.getFontRenderContext()).getWidth();
+        return TextMeasurer.getInstance().getWidth(text, font, svgGenerator.getFontRenderContext());
     }
     
     public double getTextLength(String text, float fontSize) {
@@ -1180,13 +1238,14 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
         if (imageFile == null) {
             return;
         }
-        final Path filePath = Paths.get(imageFile.getPath());
-        try (InputStream is = Files.newInputStream(filePath)) {
-            embedImage(ImageIO.read(is), canvas, bbox, center);
+        SVGTemplateCache.recordInput(imageFile.toPath());
+        try {
+            addImageElement(EmbeddedImageCache.getInstance().get(imageFile, bbox.getWidth(), bbox.getHeight()),
+                    canvas, bbox, center);
         } catch (FileNotFoundException e) {
-            logger.error("Fluff image file not found: " + filePath);
+            logger.error("Fluff image file not found: " + imageFile);
         } catch (IOException e) {
-            logger.error("Error reading fluff image file: " + filePath);
+            logger.error("Error reading fluff image file: " + imageFile);
         }
     }
 
@@ -1203,37 +1262,38 @@ public abstract class PrintRecordSheet implements Printable, IdConstants {
         if (image == null) {
             return;
         }
-
-        String mimeType = "image/png";
-        String format = "png";
-        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
-            BufferedImage bufferedImage = ImageUtil.convertToBufferedImage(image);
-            ImageIO.write(bufferedImage, format, bytes);
-
-            double width = bufferedImage.getWidth();
-            double height = bufferedImage.getHeight();
-            double scale = Math.min(bbox.getWidth() / width, bbox.getHeight() / height);
-            width *= scale;
-            height *= scale;
-            double x = bbox.getX();
-            double y = bbox.getY();
-            if (center) {
-                x += (bbox.getWidth() - width) / 2;
-                y += (bbox.getHeight() - height) / 2;
-            }
-            Element img = getSVGDocument().createElementNS(svgNS, SVGConstants.SVG_IMAGE_TAG);
-            img.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, Double.toString(x));
-            img.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, Double.toString(y));
-            img.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, Double.toString(width));
-            img.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, Double.toString(height));
-            img.setAttributeNS(SVGConstants.XLINK_NAMESPACE_URI, SVGConstants.XLINK_HREF_QNAME,
-                    "data:" + mimeType + ";base64," + Base64.getEncoder().encodeToString(bytes.toByteArray()));
-            canvas.appendChild(img);
+        // Images that are not embedded in the unit file are found by unit name in the fluff image directory
+        SVGTemplateCache.recordInput(Configuration.fluffImagesDir().toPath());
+        try {
+            addImageElement(EmbeddedImageCache.getInstance().get(image, bbox.getWidth(), bbox.getHeight()),
+                    canvas, bbox, center);
         } catch (IOException ex) {
             logger.error("Error embedding fluff image", ex);
         }
     }
 
+    private void addImageElement(EmbeddedImageCache.EncodedImage image, Element canvas, Rectangle2D bbox,
+            boolean center) {
+        double width = image.width();
+        double height = image.height();
+        double scale = Math.min(bbox.getWidth() / width, bbox.getHeight() / height);
+        width *= scale;
+        height *= scale;
+        double x = bbox.getX();
+        double y = bbox.getY();
+        if (center) {
+            x += (bbox.getWidth() - width) / 2;
+            y += (bbox.getHeight() - height) / 2;
+        }
+        Element img = getSVGDocument().createElementNS(svgNS, SVGConstants.SVG_IMAGE_TAG);
+        img.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, Double.toString(x));
+        img.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, Double.toString(y));
+        img.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, Double.toString(width));
+        img.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, Double.toString(height));
+        img.setAttributeNS(SVGConstants.XLINK_NAMESPACE_URI, SVGConstants.XLINK_HREF_QNAME, image.dataUri());
+        canvas.appendChild(img);
+    }
+
     /**
      * Used to determine whether to scale the record sheet to make room for charts.
      * This
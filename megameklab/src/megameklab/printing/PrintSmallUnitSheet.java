@@ -71,6 +71,11 @@ public class PrintSmallUnitSheet extends PrintRecordSheet {
         return entities.stream().map(Entity::getShortNameRaw).distinct().collect(Collectors.toList());
     }
 
+    @Override
+    protected List<?> getContentSources() {
+        return entities;
+    }
+
     @Override
     protected void processImage(int startPage, PageFormat pageFormat) {
         final Element element = getSVGDocument().getElementById(COPYRIGHT);
@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.awt.print.PageFormat;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.apache.batik.dom.util.DOMUtilities;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.w3c.dom.Document;
+
+import megamek.common.annotations.Nullable;
+import megamek.logging.MMLogger;
+import megameklab.util.CConfig;
+
+/**
+ * Exports a list of record sheets to a single PDF file. Sheets are rendered as batch work of the
+ * {@link RenderScheduler}; each sheet is filled and transcoded entirely on one worker, so its DOM and the worker's
+ * transcoder never leave that thread. Rendered pages are written to scratch files and merged on the calling thread
+ * in the original order, with one outline entry per bookmark name of each sheet. Fonts, images and other resources
+ * that are identical on several pages are stored only once in the merged file.
+ *
+ * <p>Only a limited number of sheets are rendered ahead of the merge, so the number of pages waiting on disk and
+ * the number of live sheets stay bounded regardless of the size of the job. While sheets are rendered, pages are
+ * merged into chunks of {@link #CHUNK_PAGES} pages that are written to scratch files, so the merged pages held in
+ * memory are bounded as well. The chunks are combined into the output file once all sheets are rendered. At that
+ * point the page and resource dictionaries of the whole document are in memory until it is saved, while the
+ * content of its streams is kept according to the {@link MemoryUsageSetting}.</p>
+ */
+public class RecordSheetExporter {
+    private static final MMLogger logger = MMLogger.create(RecordSheetExporter.class);
+
+    /** The number of sheets that may be queued per worker thread ahead of the merge */
+    private static final int QUEUE_DEPTH_PER_THREAD = 2;
+
+    /** The number of pages merged in memory before they are written to a scratch file */
+    private static final int CHUNK_PAGES = 200;
+
+    /** The form of the random ids that sheets give to elements, which differ between identical pages */
+    static final Pattern RANDOM_ID = Pattern.compile(
+            "\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+
+    private final PageFormat pageFormat;
+    private MemoryUsageSetting memoryUsageSetting = RecordSheetTask.defaultMemoryUsageSetting();
+    private int threads = defaultThreadCount();
+
+    /**
+     * The pages of a single record sheet that have been rendered to scratch files. A sheet that is a copy of an
+     * earlier sheet has no pages of its own and reuses the pages of that sheet.
+     *
+     * @param sequence      The position of the sheet in the export
+     * @param bookmarkNames The bookmark names of the sheet
+     * @param pages         The rendered pages
+     * @param copyOf        The position of the sheet this one is a copy of, or -1 if it was rendered
+     */
+    private record RenderedSheet(int sequence, List<String> bookmarkNames, List<RenderedPage> pages, int copyOf) {
+    }
+
+    /**
+     * A rendered page, identified by the content hash of its SVG document
+     *
+     * @param hash The content hash of the page
+     * @param file The PDF file of the page, or {@code null} if an identical page was rendered by an earlier sheet
+     */
+    private record RenderedPage(String hash, @Nullable File file) {
+    }
+
+    public RecordSheetExporter(PageFormat pageFormat) {
+        this.pageFormat = pageFormat;
+    }
+
+    /**
+     * @return The number of rendering threads to use by default, from {@link CConfig#RS_EXPORT_THREADS} or the number
+     *         of available processors if not set.
+     */
+    public static int defaultThreadCount() {
+        int threads = CConfig.getIntParam(CConfig.RS_EXPORT_THREADS, 0);
+        return (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @param memoryUsageSetting Determines how much of the merged document may be kept in main memory
+     * @return This exporter
+     */
+    public RecordSheetExporter setMemoryUsageSetting(MemoryUsageSetting memoryUsageSetting) {
+        this.memoryUsageSetting = memoryUsageSetting;
+        return this;
+    }
+
+    /**
+     * @param threads The number of sheets to render concurrently, as far as the render scheduler has workers free
+     *                for batch work
+     * @return This exporter
+     */
+    public RecordSheetExporter setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Renders the sheets and writes them to the output file. Sheets are removed from the list as they are handed to
+     * the rendering threads so they can be released once their pages have been written.
+     *
+     * <p>Pages are only rendered once per export. A sheet of the same kind and options as an earlier sheet for the
+     * same units is not rendered at all, and a page whose filled SVG document is identical to a page of an earlier
+     * sheet is not transcoded. In both cases the earlier page is cloned in the merged document.</p>
+     *
+     * @param sheets The sheets to export
+     * @param output The PDF file to write
+     */
+    public void export(List<PrintRecordSheet> sheets, File output) throws Exception {
+        Path scratchDir = Files.createTempDirectory("mml-export");
+        // With a single thread the sheets are rendered on the calling thread, so callers that already run several
+        // exports side by side don't pay for an extra thread per export. Otherwise they are rendered as batch work
+        // of the shared render scheduler, which keeps workers free for the preview.
+        RenderScheduler scheduler = (threads > 1) ? RenderScheduler.getInstance() : null;
+        RenderScheduler.CancellationToken token = new RenderScheduler.CancellationToken();
+        Deque<Future<RenderedSheet>> pending = new ArrayDeque<>();
+        int maxPending = threads * QUEUE_DEPTH_PER_THREAD;
+        // The first sheet for each content key, and the first sheet to render each page content
+        Map<Object, Integer> sheetByContent = new HashMap<>();
+        Map<String, Integer> pageOwners = new ConcurrentHashMap<>();
+        PDDocument chunk = null;
+
+        try {
+            Map<Integer, List<String>> bookmarkNames = new LinkedHashMap<>();
+            PDFMergerUtility merger = new PDFMergerUtility();
+            List<File> chunkFiles = new ArrayList<>();
+            // Where the pages of merged sheets and pages with a given content ended up in the merged document
+            Map<Integer, List<Integer>> mergedSheetPages = new HashMap<>();
+            Map<String, Integer> mergedPageByHash = new HashMap<>();
+            // The pages that copy an earlier page, with the page they copy
+            Map<Integer, Integer> copiedPages = new LinkedHashMap<>();
+            int currentPageOffset = 0;
+            int sequence = 0;
+            Iterator<PrintRecordSheet> iter = sheets.iterator();
+
+            while (iter.hasNext() || !pending.isEmpty()) {
+                while (iter.hasNext() && (pending.size() < maxPending)) {
+                    final PrintRecordSheet rs = iter.next();
+                    final int position = sequence++;
+                    iter.remove();
+                    Object contentKey = rs.getContentKey();
+                    Integer original = (contentKey == null) ? null : sheetByContent.putIfAbsent(contentKey, position);
+                    if (original != null) {
+                        for (int i = 0; i < rs.getPageCount(); i++) {
+                            rs.reportPageDone(i);
+                        }
+                        pending.add(CompletableFuture.completedFuture(
+                                new RenderedSheet(position, rs.getBookmarkNames(), List.of(), original)));
+                    } else if (scheduler == null) {
+                        pending.add(CompletableFuture.completedFuture(render(rs, position, scratchDir, pageOwners)));
+                    } else {
+                        pending.add(scheduler.submit(RenderScheduler.Priority.BATCH, token,
+                                () -> render(rs, position, scratchDir, pageOwners)));
+                    }
+                }
+
+                RenderedSheet rendered = pending.remove().get();
+                if (chunk == null) {
+                    chunk = new PDDocument(memoryUsageSetting.streamCache);
+                }
+                bookmarkNames.put(currentPageOffset, rendered.bookmarkNames());
+                List<Integer> sheetPages = new ArrayList<>();
+                if (rendered.copyOf() >= 0) {
+                    for (int pageIndex : mergedSheetPages.get(rendered.copyOf())) {
+                        copiedPages.put(currentPageOffset, copiedPages.getOrDefault(pageIndex, pageIndex));
+                        sheetPages.add(currentPageOffset++);
+                        chunk.addPage(new PDPage());
+                    }
+                }
+                for (RenderedPage page : rendered.pages()) {
+                    if (page.file() == null) {
+                        copiedPages.put(currentPageOffset, mergedPageByHash.get(page.hash()));
+                        sheetPages.add(currentPageOffset++);
+                        chunk.addPage(new PDPage());
+                        continue;
+                    }
+                    try (PDDocument pageDocument = Loader.loadPDF(new RandomAccessReadBufferedFile(page.file()),
+                            "", null, null, memoryUsageSetting.streamCache)) {
+                        int firstNewPage = currentPageOffset;
+                        currentPageOffset += pageDocument.getNumberOfPages();
+                        merger.appendDocument(chunk, pageDocument);
+                        for (int p = firstNewPage; p < currentPageOffset; p++) {
+                            sheetPages.add(p);
+                        }
+                        mergedPageByHash.putIfAbsent(page.hash(), firstNewPage);
+                    }
+                    Files.deleteIfExists(page.file().toPath());
+                }
+                mergedSheetPages.put(rendered.sequence(), sheetPages);
+                if (chunk.getNumberOfPages() >= CHUNK_PAGES) {
+                    chunkFiles.add(saveChunk(chunk, scratchDir));
+                    chunk = null;
+                }
+            }
+            if (chunk != null) {
+                chunkFiles.add(saveChunk(chunk, scratchDir));
+                chunk = null;
+            }
+            if (scheduler != null) {
+                logger.debug("{}", scheduler);
+            }
+
+            assemble(chunkFiles, copiedPages, bookmarkNames, output);
+        } catch (ExecutionException ex) {
+            // Report the failure from the rendering thread rather than the wrapper
+            throw (ex.getCause() instanceof Exception cause) ? cause : ex;
+        } finally {
+            token.cancel();
+            try {
+                // Running renders only notice the cancellation between pages, and may still write scratch files
+                token.awaitStopped();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (chunk != null) {
+                chunk.close();
+            }
+            deleteScratchDirectory(scratchDir);
+        }
+    }
+
+    /**
+     * Writes a chunk of merged pages to a scratch file and releases it.
+     *
+     * @return The scratch file
+     */
+    private static File saveChunk(PDDocument chunk, Path scratchDir) throws IOException {
+        File file = Files.createTempFile(scratchDir, "chunk", ".pdf").toFile();
+        try (chunk) {
+            chunk.save(file);
+        }
+        return file;
+    }
+
+    /**
+     * Combines the chunks into the output file. Resources that are identical on several pages are shared, the
+     * placeholders of copied pages are filled with the pages they copy, and the bookmarks are added.
+     *
+     * @param chunkFiles    The chunks of merged pages, in order
+     * @param copiedPages   The placeholder pages, with the page each one copies
+     * @param bookmarkNames The bookmark names of each sheet, by the index of its first page
+     * @param output        The PDF file to write
+     */
+    private void assemble(List<File> chunkFiles, Map<Integer, Integer> copiedPages,
+            Map<Integer, List<String>> bookmarkNames, File output) throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        PdfResourceDeduplicator deduplicator = new PdfResourceDeduplicator();
+        try (PDDocument mergedDocument = new PDDocument(memoryUsageSetting.streamCache)) {
+            for (File chunkFile : chunkFiles) {
+                try (PDDocument chunkDocument = Loader.loadPDF(new RandomAccessReadBufferedFile(chunkFile),
+                        "", null, null, memoryUsageSetting.streamCache)) {
+                    int firstNewPage = mergedDocument.getNumberOfPages();
+                    merger.appendDocument(mergedDocument, chunkDocument);
+                    for (int p = firstNewPage; p < mergedDocument.getNumberOfPages(); p++) {
+                        if (!copiedPages.containsKey(p)) {
+                            deduplicator.deduplicate(mergedDocument.getPage(p));
+                        }
+                    }
+                }
+                Files.deleteIfExists(chunkFile.toPath());
+            }
+            for (Map.Entry<Integer, Integer> copy : copiedPages.entrySet()) {
+                copyPage(mergedDocument, copy.getValue(), copy.getKey());
+            }
+            if (!bookmarkNames.isEmpty()) {
+                addBookmarks(mergedDocument, bookmarkNames);
+            }
+            logger.info("Reused {} of {} pages; shared {} duplicate PDF resources ({} KB)", copiedPages.size(),
+                    mergedDocument.getNumberOfPages(), deduplicator.getSharedStreams(),
+                    deduplicator.getSharedBytes() / 1024);
+            mergedDocument.save(output);
+        }
+    }
+
+    /**
+     * Renders all pages of a single sheet. This runs on a worker thread unless only one thread is used. A page is
+     * only transcoded if no earlier sheet has claimed a page with the same content; pages claimed by an earlier
+     * sheet are merged before the pages of this one, so they can be cloned.
+     */
+    private RenderedSheet render(PrintRecordSheet rs, int sequence, Path scratchDir, Map<String, Integer> pageOwners)
+            throws Exception {
+        List<RenderedPage> pages = new ArrayList<>();
+        for (int i = 0; i < rs.getPageCount(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (!rs.createDocument(i + rs.getFirstPage(), pageFormat, true)) {
+                continue;
+            }
+            String hash = hashDocument(rs.getSVGDocument());
+            Integer owner = pageOwners.putIfAbsent(hash, sequence);
+            if ((owner != null) && (owner <= sequence)) {
+                pages.add(new RenderedPage(hash, null));
+            } else {
+                File page = Files.createTempFile(scratchDir, "page", ".pdf").toFile();
+                try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(page.toPath()))) {
+                    rs.transcodePDF(os);
+                }
+                pages.add(new RenderedPage(hash, page));
+            }
+            rs.reportPageDone(i);
+        }
+        List<String> bookmarkNames = rs.getBookmarkNames();
+        // The sheet is not needed anymore; drop the DOM of the last page
+        rs.setSVGDocument(null);
+        return new RenderedSheet(sequence, bookmarkNames, pages, -1);
+    }
+
+    /**
+     * Hashes the serialized document. Sheets give random UUIDs to the elements that they switch on or off by id,
+     * such as frames and table shading, so these are replaced by their order of appearance before hashing.
+     *
+     * @return A hash of the serialized document, which is the same for documents that render identical pages
+     */
+    static String hashDocument(Document document) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        StringWriter writer = new StringWriter();
+        DOMUtilities.writeDocument(document, writer);
+        Map<String, String> ids = new HashMap<>();
+        String normalized = RANDOM_ID.matcher(writer.toString())
+                .replaceAll(match -> ids.computeIfAbsent(match.group(), id -> "id" + ids.size()));
+        return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Turns a placeholder page of the merged document into a copy of an earlier page. The copy shares the content
+     * and resources of the original page.
+     */
+    private static void copyPage(PDDocument document, int sourceIndex, int targetIndex) {
+        COSDictionary source = document.getPage(sourceIndex).getCOSObject();
+        COSDictionary target = document.getPage(targetIndex).getCOSObject();
+        for (Map.Entry<COSName, COSBase> entry : source.entrySet()) {
+            if (!COSName.PARENT.equals(entry.getKey())) {
+                target.setItem(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static void deleteScratchDirectory(Path scratchDir) {
+        try (var files = Files.list(scratchDir)) {
+            files.forEach(f -> f.toFile().delete());
+        } catch (IOException ex) {
+            logger.warn("Could not clean up export scratch directory " + scratchDir, ex);
+        }
+        if (!scratchDir.toFile().delete()) {
+            scratchDir.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Adds bookmarks to the PDF document based on the bookmark names map
+     *
+     * @param document      The merged document
+     * @param bookmarkNames Bookmark names, keyed by the index of the page they point to
+     */
+    static void addBookmarks(PDDocument document, Map<Integer, List<String>> bookmarkNames) {
+        PDDocumentOutline outline = new PDDocumentOutline();
+        document.getDocumentCatalog().setDocumentOutline(outline);
+        for (Map.Entry<Integer, List<String>> entry : bookmarkNames.entrySet()) {
+            int pageNumber = entry.getKey();
+            List<String> names = entry.getValue();
+            if (names != null && !names.isEmpty() && pageNumber < document.getNumberOfPages()) {
+                for (String name : names) {
+                    PDOutlineItem bookmark = new PDOutlineItem();
+                    bookmark.setTitle(name);
+                    try {
+                        bookmark.setDestination(document.getPage(pageNumber));
+                        outline.addLast(bookmark);
+                    } catch (Exception e) {
+                        logger.warn("Failed to create bookmark for page " + pageNumber + ": " + name, e);
+                    }
+                }
+            }
+        }
+    }
+}
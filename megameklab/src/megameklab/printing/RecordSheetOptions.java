@@ -240,4 +240,17 @@ public class RecordSheetOptions {
     public void setWeaponsOrder(WeaponSortOrder order) {
         this.weaponsOrder = order;
     }
+
+    /**
+     * @return A string that is the same for two sets of options exactly when they produce the same record sheets
+     */
+    public String getFingerprint() {
+        return String.join(",", paperSize.name(), Boolean.toString(color), Boolean.toString(quirks),
+                Boolean.toString(c3bv), Boolean.toString(pilotData), Boolean.toString(eraIcon), Boolean.toString(role),
+                Boolean.toString(heatProfile), Boolean.toString(tacOpsHeat), Boolean.toString(eraBasedProgression),
+                Boolean.toString(referenceCharts), Boolean.toString(condensedReferenceCharts),
+                Boolean.toString(rowShading), Boolean.toString(alternateArmorGrouping), Boolean.toString(frameless),
+                Boolean.toString(boldType), Boolean.toString(damage), String.valueOf(damageColor),
+                String.valueOf(weaponsOrder));
+    }
 }
@@ -13,20 +13,26 @@
  */
 package megameklab.printing;
 
+import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.print.PageFormat;
 import java.awt.print.Pageable;
+import java.awt.print.Paper;
 import java.awt.print.Printable;
+import java.awt.print.PrinterException;
 import java.awt.print.PrinterJob;
 import java.io.File;
-import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.nio.file.Files;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.ResourceBundle;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.print.attribute.PrintRequestAttributeSet;
 import javax.swing.JFrame;
@@ -36,16 +42,16 @@ import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.SwingWorker;
 
+import org.apache.batik.gvt.GraphicsNode;
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
-import org.apache.pdfbox.multipdf.PDFMergerUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.io.RandomAccessReadBuffer;
-import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
-import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.apache.pdfbox.printing.PDFPrintable;
+import org.apache.pdfbox.printing.Scaling;
 
 import megamek.logging.MMLogger;
+import megameklab.util.CConfig;
 
 /**
  * Renders one or more record sheets as a background task. The task is created
@@ -61,21 +67,27 @@ import megamek.logging.MMLogger;
 public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
     private static final MMLogger logger = MMLogger.create(RecordSheetTask.class);
 
+    /** Main memory used for the merged document during PDF export before spilling to temp files */
+    public static final int DEFAULT_EXPORT_MEMORY_MB = 32;
+
     private final ProgressPopup popup;
     protected final List<PrintRecordSheet> sheets;
 
     private RecordSheetTask(List<PrintRecordSheet> sheets) {
         this.sheets = sheets;
         int pages = 0;
-        for (PrintRecordSheet sheet : sheets) {
-            sheet.setCallback(this::publish);
-            pages += sheet.getPageCount();
+        // Sheets planned by a LazySheetList are not created here, but only once they are rendered
+        for (LazySheetList.Entry entry : LazySheetList.entries(sheets)) {
+            entry.setCallback(this::publish);
+            pages += entry.getPageCount();
         }
         popup = new ProgressPopup(pages, popupLabel());
     }
 
     /**
-     * Creates a task for rendering a list of record sheets as a print job
+     * Creates a task for rendering a list of record sheets as a print job. If {@link CConfig#RS_PRINT_VIA_PDF} is
+     * set, the sheets are rendered to PDF the same way as for export and the PDF pages are sent to the printer.
+     * Otherwise each page is painted to the printer directly.
      *
      * @param sheets     The sheets to render The contents are removed as each sheet
      *                   is
@@ -87,6 +99,9 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
      */
     public static RecordSheetTask createPrintTask(List<PrintRecordSheet> sheets, PrinterJob job,
             PrintRequestAttributeSet aset, PageFormat pageFormat) {
+        if (CConfig.getBooleanParam(CConfig.RS_PRINT_VIA_PDF)) {
+            return new PdfPrintTask(sheets, job, aset, pageFormat);
+        }
         return new PrintTask(sheets, job, aset, pageFormat);
     }
 
@@ -102,7 +117,35 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
      */
     public static RecordSheetTask createExportTask(List<PrintRecordSheet> sheets, PageFormat pageFormat,
             String pathName) {
-        return new ExportTask(sheets, pageFormat, pathName);
+        return createExportTask(sheets, pageFormat, pathName, defaultMemoryUsageSetting());
+    }
+
+    /**
+     * Creates a task for rendering a list of record sheets to a PDF file with control over how much of the
+     * document is held in memory while it is assembled.
+     *
+     * @param sheets             The sheets to render. The contents are removed as each sheet is processed.
+     * @param pageFormat         The page format
+     * @param pathName           The path to the PDF output file
+     * @param memoryUsageSetting Determines how much of the merged document may be kept in main memory before
+     *                           spilling to temporary files
+     * @return A {@link SwingWorker} task
+     */
+    public static RecordSheetTask createExportTask(List<PrintRecordSheet> sheets, PageFormat pageFormat,
+            String pathName, MemoryUsageSetting memoryUsageSetting) {
+        return new ExportTask(sheets, pageFormat, pathName, memoryUsageSetting);
+    }
+
+    /**
+     * @return The memory setting for PDF export, using {@link CConfig#RS_EXPORT_MEMORY_MB} megabytes of main memory
+     *         before spilling to temporary files. A negative value keeps everything in memory.
+     */
+    public static MemoryUsageSetting defaultMemoryUsageSetting() {
+        int megabytes = CConfig.getIntParam(CConfig.RS_EXPORT_MEMORY_MB, DEFAULT_EXPORT_MEMORY_MB);
+        if (megabytes < 0) {
+            return MemoryUsageSetting.setupMainMemoryOnly();
+        }
+        return MemoryUsageSetting.setupMixed(megabytes * 1024L * 1024L);
     }
 
     /**
@@ -159,6 +202,7 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
     private static class PrintTask extends RecordSheetTask {
         private final PrinterJob job;
         private final PrintRequestAttributeSet aset;
+        private final RSBook book;
 
         public PrintTask(List<PrintRecordSheet> sheets, PrinterJob job, PrintRequestAttributeSet aset,
                 PageFormat pageFormat) {
@@ -166,7 +210,7 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
             this.job = job;
             this.aset = aset;
 
-            RSBook book = new RSBook(sheets, pageFormat);
+            book = new RSBook(sheets, pageFormat);
             sheets.clear();
             job.setPageable(book);
         }
@@ -179,7 +223,63 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
 
         @Override
         public Void doInBackground() throws Exception {
-            job.print(aset);
+            try {
+                job.print(aset);
+            } finally {
+                book.close();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Prints by rendering the sheets to a temporary PDF file with {@link RecordSheetExporter} and spooling its pages.
+     * This uses the worker threads, caches and page reuse of the export, and the printer receives vector pages
+     * instead of pages painted at printer resolution.
+     */
+    private static class PdfPrintTask extends RecordSheetTask {
+        private final PrinterJob job;
+        private final PrintRequestAttributeSet aset;
+        private final PageFormat pageFormat;
+        private final AtomicInteger pagesDone = new AtomicInteger();
+
+        public PdfPrintTask(List<PrintRecordSheet> sheets, PrinterJob job, PrintRequestAttributeSet aset,
+                PageFormat pageFormat) {
+            super(sheets);
+            this.job = job;
+            this.aset = aset;
+            this.pageFormat = pageFormat;
+            // Pages finish out of order when rendered in parallel, so report how many are done instead
+            for (LazySheetList.Entry entry : LazySheetList.entries(sheets)) {
+                entry.setCallback(page -> publish(pagesDone.incrementAndGet()));
+            }
+        }
+
+        @Override
+        protected String popupLabel() {
+            ResourceBundle resourceMap = ResourceBundle.getBundle("megameklab.resources.Dialogs");
+            return resourceMap.getString("RecordSheetTask.printing");
+        }
+
+        @Override
+        public Void doInBackground() throws Exception {
+            File pdfFile = File.createTempFile("mml-print", ".pdf");
+            try {
+                MemoryUsageSetting memoryUsageSetting = defaultMemoryUsageSetting();
+                new RecordSheetExporter(pageFormat)
+                        .setMemoryUsageSetting(memoryUsageSetting)
+                        .export(sheets, pdfFile);
+                try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(pdfFile), "", null,
+                        null, memoryUsageSetting.streamCache)) {
+                    job.setPageable(new PdfBook(document, pageFormat));
+                    job.print(aset);
+                }
+            } catch (Exception e) {
+                logger.error("Error while printing through PDF", e);
+                throw e;
+            } finally {
+                Files.deleteIfExists(pdfFile.toPath());
+            }
             return null;
         }
     }
@@ -187,11 +287,19 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
     private static class ExportTask extends RecordSheetTask {
         private final PageFormat pageFormat;
         private final String fileName;
+        private final MemoryUsageSetting memoryUsageSetting;
+        private final AtomicInteger pagesDone = new AtomicInteger();
 
-        public ExportTask(List<PrintRecordSheet> sheets, PageFormat pageFormat, String fileName) {
+        public ExportTask(List<PrintRecordSheet> sheets, PageFormat pageFormat, String fileName,
+                MemoryUsageSetting memoryUsageSetting) {
             super(sheets);
             this.pageFormat = pageFormat;
             this.fileName = fileName;
+            this.memoryUsageSetting = memoryUsageSetting;
+            // Pages finish out of order when rendered in parallel, so report how many are done instead
+            for (LazySheetList.Entry entry : LazySheetList.entries(sheets)) {
+                entry.setCallback(page -> publish(pagesDone.incrementAndGet()));
+            }
         }
 
         @Override
@@ -202,103 +310,94 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
 
         @Override
         public Void doInBackground() throws Exception {
-            Map<Integer, List<String>> bookmarkNames = new HashMap<>();
-            PDDocument mergedDocument = new PDDocument();
-            
             try {
-                int currentPageOffset = 0;
-                Iterator<PrintRecordSheet> iter = sheets.iterator();
-                
-                while (iter.hasNext()) {
-                    final PrintRecordSheet rs = iter.next();
-                    bookmarkNames.put(currentPageOffset, rs.getBookmarkNames());
-                    
-                    for (int i = 0; i < rs.getPageCount(); i++) {
-                        final InputStream is = rs.exportPDF(i, pageFormat);
-                        if (is != null) {
-                            try {
-                                // Load PDF document from InputStream and append to merged document
-                                PDDocument pageDocument = Loader.loadPDF(new RandomAccessReadBuffer(is));
-                                
-                                // Count pages for bookmark offset
-                                currentPageOffset += pageDocument.getNumberOfPages();
-                                
-                                // Append the document
-                                PDFMergerUtility merger = new PDFMergerUtility();
-                                merger.appendDocument(mergedDocument, pageDocument);
-                                pageDocument.close();
-                                
-                            } finally {
-                                is.close();
-                            }
-                        }
-                    }
-                    iter.remove();
-                }
-                
-                // Add bookmarks before saving
-                if (!bookmarkNames.isEmpty()) {
-                    addBookmarks(mergedDocument, bookmarkNames);
-                }
-                
-                // Save the merged document
-                mergedDocument.save(fileName);
-                mergedDocument.close();
-                
+                new RecordSheetExporter(pageFormat)
+                        .setMemoryUsageSetting(memoryUsageSetting)
+                        .export(sheets, new File(fileName));
             } catch (Exception e) {
                 logger.error("Error during PDF export", e);
                 throw e;
             }
             return null;
-    
         }
+    }
 
-        /**
-         * Adds bookmarks to the PDF document based on the bookmark names map
-         */
-        private void addBookmarks(PDDocument document, Map<Integer, List<String>> bookmarkNames) {
-            PDDocumentOutline outline = new PDDocumentOutline();
-            document.getDocumentCatalog().setDocumentOutline(outline);
-            for (Entry<Integer, List<String>> entry : bookmarkNames.entrySet()) {
-                int pageNumber = entry.getKey();
-                List<String> names = entry.getValue();
-                if (names != null && !names.isEmpty() && pageNumber < document.getNumberOfPages()) {
-                    for (String name : names) {
-                        PDOutlineItem bookmark = new PDOutlineItem();
-                        bookmark.setTitle(name);
-                        try {
-                            bookmark.setDestination(document.getPage(pageNumber));
-                            outline.addLast(bookmark);
-                        } catch (Exception e) {
-                            logger.warn("Failed to create bookmark for page " + pageNumber + ": " + name, e);
-                        }
-                    }
-                }
-            }
+    /**
+     * Pageable for the pages of a rendered PDF. The pages already contain the margins of the page format, so they
+     * are printed at their actual size from the corner of the paper.
+     */
+    private static class PdfBook implements Pageable {
+        private final PDDocument document;
+        private final PageFormat pageFormat;
+        private final Printable printable;
+
+        PdfBook(PDDocument document, PageFormat pageFormat) {
+            this.document = document;
+            this.pageFormat = (PageFormat) pageFormat.clone();
+            Paper paper = this.pageFormat.getPaper();
+            paper.setImageableArea(0, 0, paper.getWidth(), paper.getHeight());
+            this.pageFormat.setPaper(paper);
+            printable = new PDFPrintable(document, Scaling.ACTUAL_SIZE, false, 0, false);
+        }
+
+        @Override
+        public int getNumberOfPages() {
+            return document.getNumberOfPages();
+        }
+
+        @Override
+        public PageFormat getPageFormat(int pageIndex) throws IndexOutOfBoundsException {
+            return pageFormat;
+        }
+
+        @Override
+        public Printable getPrintable(int pageIndex) throws IndexOutOfBoundsException {
+            return printable;
         }
     }
 
     /**
-     * Implementation of Pageable that removes the record sheet objects as they are
-     * processed
-     * (when the next one is accessed) to conserve memory.
+     * Implementation of Pageable that prepares the pages ahead of the printer as batch work of the
+     * {@link RenderScheduler}, and removes the
+     * record sheet objects as they are processed (when the next one is accessed) to conserve memory. When the
+     * printer asks for a page, the following pages up to the look-ahead limit are scheduled, so the documents and
+     * graphics trees of those pages are built while the current page is spooled. Pages of the same sheet share its
+     * document and are prepared one after another; pages of different sheets are prepared in parallel. Sheets
+     * planned by a {@link LazySheetList} are created on the worker thread as well. Prepared pages are released once
+     * the printer has moved past them.
      */
     private static class RSBook implements Pageable {
-        private final TreeMap<Integer, PrintRecordSheet> pages = new TreeMap<>();
+        /** The number of pages prepared ahead of the printer for each worker thread */
+        private static final int LOOK_AHEAD_PER_THREAD = 2;
+
+        private final TreeMap<Integer, LazySheetList.Entry> pages = new TreeMap<>();
         private final PageFormat pageFormat;
+        /** The group of the pages of this job, so closing the book drops them from the scheduler */
+        private final RenderScheduler.CancellationToken token = new RenderScheduler.CancellationToken();
+        private final Executor executor = RenderScheduler.getInstance().executor(RenderScheduler.Priority.BATCH,
+                token);
+        private final int lookAhead;
+        /** The number of pages of the whole job, which doesn't change as pages are released */
+        private final int numberOfPages;
+        /** The pages that have been scheduled and not yet released */
+        private final TreeMap<Integer, CompletableFuture<GraphicsNode>> prepared = new TreeMap<>();
+        /** Completes when the last scheduled page of the sheet is done, successfully or not */
+        private final Map<LazySheetList.Entry, CompletableFuture<Void>> sheetQueues = new IdentityHashMap<>();
 
         RSBook(List<PrintRecordSheet> sheets, PageFormat pageFormat) {
             this.pageFormat = pageFormat;
-            for (PrintRecordSheet rs : sheets) {
-                for (int p = rs.getFirstPage(); p < rs.getFirstPage() + rs.getPageCount(); p++) {
-                    pages.put(p, rs);
+            for (LazySheetList.Entry entry : LazySheetList.entries(sheets)) {
+                for (int p = entry.getFirstPage(); p < entry.getFirstPage() + entry.getPageCount(); p++) {
+                    pages.put(p, entry);
                 }
             }
+            numberOfPages = pages.size();
+            lookAhead = RecordSheetExporter.defaultThreadCount() * LOOK_AHEAD_PER_THREAD;
         }
 
         @Override
         public int getNumberOfPages() {
-            return pages.values().stream().mapToInt(PrintRecordSheet::getPageCount).sum();
+            return numberOfPages;
         }
 
         @Override
@@ -308,11 +407,74 @@ public abstract class RecordSheetTask extends SwingWorker<Void, Integer> {
 
         @Override
         public Printable getPrintable(int pageIndex) throws IndexOutOfBoundsException {
-            PrintRecordSheet rs = pages.get(pageIndex);
-            while (pages.firstKey() < rs.getFirstPage()) {
-                pages.remove(pages.firstKey());
+            LazySheetList.Entry current = pages.get(pageIndex);
+            if (current == null) {
+                throw new IndexOutOfBoundsException("No page " + pageIndex);
+            }
+            while (pages.firstKey() < current.getFirstPage()) {
+                sheetQueues.remove(pages.remove(pages.firstKey()));
+            }
+            prepared.headMap(pageIndex).clear();
+            for (Map.Entry<Integer, LazySheetList.Entry> entry
+                    : pages.subMap(pageIndex, true, pageIndex + lookAhead, true).entrySet()) {
+                schedule(entry.getKey(), entry.getValue());
+            }
+            return new PreparedPage(current, prepared.get(pageIndex));
+        }
+
+        private void schedule(int pageIndex, LazySheetList.Entry entry) {
+            if (prepared.containsKey(pageIndex)) {
+                return;
+            }
+            CompletableFuture<Void> previous = sheetQueues.getOrDefault(entry,
+                    CompletableFuture.completedFuture(null));
+            CompletableFuture<GraphicsNode> page = previous.thenApplyAsync(
+                    v -> entry.getSheet().preparePage(pageIndex, pageFormat), executor);
+            prepared.put(pageIndex, page);
+            sheetQueues.put(entry, page.handle((node, ex) -> null));
+        }
+
+        /**
+         * Abandons the pages that have not been prepared yet.
+         */
+        void close() {
+            token.cancel();
+            prepared.values().forEach(page -> page.cancel(false));
+            prepared.clear();
+            sheetQueues.clear();
+        }
+    }
+
+    /**
+     * Paints a page prepared by {@link RSBook}, waiting for it if it is not ready yet.
+     */
+    private static class PreparedPage implements Printable {
+        private final LazySheetList.Entry sheet;
+        private final CompletableFuture<GraphicsNode> page;
+
+        PreparedPage(LazySheetList.Entry sheet, CompletableFuture<GraphicsNode> page) {
+            this.sheet = sheet;
+            this.page = page;
+        }
+
+        @Override
+        public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) throws PrinterException {
+            GraphicsNode node;
+            try {
+                node = page.join();
+            } catch (CompletionException ex) {
+                PrinterException printerException = new PrinterException("Could not render page " + pageIndex);
+                printerException.initCause(ex.getCause());
+                throw printerException;
+            }
+            if (node == null) {
+                return NO_SUCH_PAGE;
+            }
+            if (graphics != null) {
+                node.paint((Graphics2D) graphics);
             }
-            return rs;
+            sheet.getSheet().reportPageDone(pageIndex - sheet.getFirstPage());
+            return PAGE_EXISTS;
         }
     }
 }
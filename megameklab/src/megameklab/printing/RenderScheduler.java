@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import megamek.common.annotations.Nullable;
+import megamek.logging.MMLogger;
+
+/**
+ * Runs all record sheet rendering work of the application on one pool of worker threads, so the preview, printing
+ * and export share the processors instead of competing for them with separate pools. Tasks are queued by priority
+ * class and a free worker always takes the oldest task of the most urgent class. Each class may only occupy a
+ * limited number of workers. Batch work leaves one worker free, and the shared scheduler has at least two workers
+ * even on a single processor, so a large export always leaves a worker free for the preview.
+ *
+ * <p>Tasks are not preempted: a running batch task finishes before its worker takes a preview task. Batch work is
+ * therefore submitted in pieces of one sheet or page.</p>
+ */
+public final class RenderScheduler {
+    private static final MMLogger logger = MMLogger.create(RenderScheduler.class);
+
+    /** The smallest number of workers of the shared scheduler, so batch work cannot occupy all of them */
+    private static final int MIN_SHARED_THREADS = 2;
+
+    private static final RenderScheduler instance = createInstance();
+
+    /**
+     * The priority classes of rendering work, from the most to the least urgent.
+     */
+    public enum Priority {
+        /** The preview of the unit that is being edited */
+        INTERACTIVE,
+        /** Previews that are shown while browsing units, such as in the unit selector and print queue */
+        THUMBNAIL,
+        /** Printing and export */
+        BATCH
+    }
+
+    /**
+     * Cancels a group of tasks at once, such as all pages of one export. Queued tasks of the group are dropped
+     * and running ones are interrupted. Long tasks can also check {@link #isCancelled()} between steps. A cancelled
+     * task may keep running until it notices the interrupt; {@link #awaitStopped()} waits for that.
+     */
+    public static final class CancellationToken {
+        private final Set<Future<?>> tasks = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+        private int running;
+
+        /**
+         * Cancels the tasks of the group, and any task that is submitted with the token later.
+         */
+        public void cancel() {
+            cancelled = true;
+            for (Future<?> task : tasks) {
+                task.cancel(true);
+            }
+            tasks.clear();
+        }
+
+        /**
+         * @return Whether the group has been cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Waits until no task of the group is running on a worker. After {@link #cancel()}, this waits for the
+         * tasks that were already running to stop, which their futures don't do.
+         *
+         * @throws InterruptedException If the calling thread is interrupted while waiting
+         */
+        public synchronized void awaitStopped() throws InterruptedException {
+            while (running > 0) {
+                wait();
+            }
+        }
+
+        private synchronized void started() {
+            running++;
+        }
+
+        private synchronized void stopped() {
+            running--;
+            if (running == 0) {
+                notifyAll();
+            }
+        }
+
+        private void add(Future<?> task) {
+            tasks.add(task);
+            if (cancelled) {
+                task.cancel(true);
+            }
+        }
+
+        private void remove(Future<?> task) {
+            tasks.remove(task);
+        }
+    }
+
+    /**
+     * The state of one priority class, for monitoring.
+     *
+     * @param queued     The number of tasks waiting for a worker
+     * @param running    The number of tasks being run
+     * @param limit      The maximum number of tasks of the class that are run at once
+     * @param peakQueued The largest number of tasks that have been waiting at once
+     * @param completed  The number of tasks that have finished, including failed and cancelled ones
+     * @param averageWaitMillis The average time the finished tasks have waited for a worker
+     */
+    public record ClassStats(int queued, int running, int limit, int peakQueued, long completed,
+            double averageWaitMillis) {
+    }
+
+    /**
+     * A queued task, which removes itself from the queue and its token when it is done.
+     */
+    private final class Task<T> extends FutureTask<T> {
+        private final Priority priority;
+        private final @Nullable CancellationToken token;
+        private final long queuedAt = System.nanoTime();
+
+        Task(Priority priority, @Nullable CancellationToken token, Callable<T> callable) {
+            super(callable);
+            this.priority = priority;
+            this.token = token;
+        }
+
+        @Override
+        protected void done() {
+            if (token != null) {
+                token.remove(this);
+            }
+            if (isCancelled()) {
+                dequeue(this);
+            }
+        }
+    }
+
+    private final ExecutorService workers;
+    private final int threads;
+    private final Map<Priority, ArrayDeque<Task<?>>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Integer> limits = new EnumMap<>(Priority.class);
+    private final int[] running = new int[Priority.values().length];
+    private final int[] peakQueued = new int[Priority.values().length];
+    private final long[] completed = new long[Priority.values().length];
+    private final long[] totalWaitNanos = new long[Priority.values().length];
+    private int totalRunning;
+    private boolean closed;
+
+    /**
+     * @return The scheduler shared by all rendering
+     */
+    public static RenderScheduler getInstance() {
+        return instance;
+    }
+
+    private static RenderScheduler createInstance() {
+        RenderScheduler scheduler = new RenderScheduler(
+                Math.max(MIN_SHARED_THREADS, Runtime.getRuntime().availableProcessors()));
+        Runtime.getRuntime().addShutdownHook(new Thread(scheduler::shutdown, "RecordSheetRenderer-ShutdownHook"));
+        return scheduler;
+    }
+
+    /**
+     * Creates a scheduler with its own workers. Use {@link #getInstance()} outside of tests, and {@link #close()}
+     * the scheduler when it is no longer used.
+     *
+     * @param threads The number of worker threads
+     */
+    RenderScheduler(int threads) {
+        this.threads = threads;
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+        limits.put(Priority.INTERACTIVE, threads);
+        limits.put(Priority.THUMBNAIL, Math.max(1, threads / 2));
+        limits.put(Priority.BATCH, Math.max(1, threads - 1));
+        workers = Executors.newFixedThreadPool(threads, new RenderThreadFactory());
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param priority The priority class of the task
+     * @param token    The group of the task, or null
+     * @param callable The task
+     * @return The future of the task. Cancelling it drops the task if it has not started.
+     */
+    public <T> Future<T> submit(Priority priority, @Nullable CancellationToken token, Callable<T> callable) {
+        Task<T> task = new Task<>(priority, token, callable);
+        if (token != null) {
+            token.add(task);
+            if (task.isDone()) {
+                return task;
+            }
+        }
+        synchronized (this) {
+            if (closed) {
+                task.cancel(false);
+                return task;
+            }
+            ArrayDeque<Task<?>> queue = queues.get(priority);
+            queue.add(task);
+            peakQueued[priority.ordinal()] = Math.max(peakQueued[priority.ordinal()], queue.size());
+            dispatch();
+        }
+        return task;
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param priority The priority class of the task
+     * @param task     The task
+     * @return The future of the task. Cancelling it drops the task if it has not started.
+     */
+    public Future<?> submit(Priority priority, Runnable task) {
+        return submit(priority, null, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param priority The priority class
+     * @return An executor that queues its tasks in the class, for use with
+     *         {@link java.util.concurrent.CompletableFuture}
+     */
+    public Executor executor(Priority priority) {
+        return executor(priority, null);
+    }
+
+    /**
+     * @param priority The priority class
+     * @param token    The group of the tasks, or null
+     * @return An executor that queues its tasks in the class and group, for use with
+     *         {@link java.util.concurrent.CompletableFuture}
+     */
+    public Executor executor(Priority priority, @Nullable CancellationToken token) {
+        return task -> submit(priority, token, Executors.callable(task));
+    }
+
+    /**
+     * @param priority The priority class
+     * @return The number of tasks of the class that are waiting for a worker
+     */
+    public synchronized int getQueueDepth(Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    /**
+     * @param priority The priority class
+     * @return The current state of the class
+     */
+    public synchronized ClassStats getStats(Priority priority) {
+        int index = priority.ordinal();
+        return new ClassStats(queues.get(priority).size(), running[index], limits.get(priority), peakQueued[index],
+                completed[index], (completed[index] == 0) ? 0 : totalWaitNanos[index] / 1_000_000.0 / completed[index]);
+    }
+
+    /**
+     * Starts queued tasks while workers are free, taking the most urgent class that is below its limit first.
+     */
+    private synchronized void dispatch() {
+        while (totalRunning < threads) {
+            Task<?> next = null;
+            for (Priority priority : Priority.values()) {
+                ArrayDeque<Task<?>> queue = queues.get(priority);
+                if (!queue.isEmpty() && (running[priority.ordinal()] < limits.get(priority))) {
+                    next = queue.poll();
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            final Task<?> task = next;
+            int index = task.priority.ordinal();
+            running[index]++;
+            totalRunning++;
+            totalWaitNanos[index] += System.nanoTime() - task.queuedAt;
+            if (task.token != null) {
+                task.token.started();
+            }
+            try {
+                workers.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        finished(task);
+                    }
+                });
+            } catch (Exception ex) {
+                // The pool has been shut down
+                logger.debug("Render task rejected", ex);
+                task.cancel(false);
+                finished(task);
+                return;
+            }
+        }
+    }
+
+    private synchronized void finished(Task<?> task) {
+        int index = task.priority.ordinal();
+        running[index]--;
+        totalRunning--;
+        completed[index]++;
+        if (task.token != null) {
+            task.token.stopped();
+        }
+        dispatch();
+    }
+
+    private synchronized void dequeue(Task<?> task) {
+        if (queues.get(task.priority).remove(task)) {
+            completed[task.priority.ordinal()]++;
+        }
+    }
+
+    /**
+     * Drops the queued tasks and lets the workers stop once the running tasks have finished, without waiting for
+     * them. Tasks submitted later are cancelled.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            for (ArrayDeque<Task<?>> queue : queues.values()) {
+                for (Task<?> task : queue.toArray(new Task<?>[0])) {
+                    task.cancel(false);
+                }
+            }
+        }
+        workers.shutdown();
+    }
+
+    private void shutdown() {
+        logger.debug("Shutting down render scheduler: {}", this);
+        close();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+                logger.warn("Render scheduler did not terminate gracefully.");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("RenderScheduler[").append(threads).append(" threads");
+        for (Priority priority : Priority.values()) {
+            ClassStats stats = getStats(priority);
+            sb.append(String.format(", %s: %d queued (peak %d), %d/%d running, %d done, %.1f ms wait", priority,
+                    stats.queued(), stats.peakQueued(), stats.running(), stats.limit(), stats.completed(),
+                    stats.averageWaitMillis()));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Creates the daemon threads that render record sheet pages. They run below normal priority, so the EDT stays
+     * responsive while they are busy.
+     */
+    private static class RenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "RecordSheetRenderer-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY + 1);
+            return t;
+        }
+    }
+}
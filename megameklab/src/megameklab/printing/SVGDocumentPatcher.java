@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.batik.anim.dom.SVGOMElement;
+import org.apache.batik.dom.svg.SVGContext;
+import org.apache.batik.util.SVGConstants;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import megamek.common.annotations.Nullable;
+
+/**
+ * Brings a record sheet document that has already been built into a graphics tree up to date with a newly filled
+ * document of the same page, by replacing only the parts that differ. The graphics tree must have been built with a
+ * dynamic bridge context, as {@link PrintRecordSheet#build()} does, so it follows the changes to the document and
+ * only the replaced elements are built again.
+ *
+ * <p>A difference in an element's attributes replaces the element. A difference in the number or kind of children,
+ * or in text, replaces the nearest enclosing graphics element, so a changed text field replaces the text element
+ * and a redrawn pip diagram replaces its group. Changes that are not drawn directly, such as definitions and
+ * styles, and changes to the root element cannot be patched.</p>
+ *
+ * <p>Sheets give random ids to some elements on every fill. Such ids are matched by the order in which they appear
+ * in each document rather than by value, so a page filled again with the same data has no differences.</p>
+ */
+public final class SVGDocumentPatcher {
+
+    /** Elements that are painted and can be replaced independently */
+    private static final Set<String> GRAPHICS_ELEMENTS = Set.of(SVGConstants.SVG_G_TAG,
+            SVGConstants.SVG_TEXT_TAG, SVGConstants.SVG_PATH_TAG, SVGConstants.SVG_RECT_TAG,
+            SVGConstants.SVG_CIRCLE_TAG, SVGConstants.SVG_ELLIPSE_TAG, SVGConstants.SVG_LINE_TAG,
+            SVGConstants.SVG_POLYLINE_TAG, SVGConstants.SVG_POLYGON_TAG, SVGConstants.SVG_IMAGE_TAG,
+            SVGConstants.SVG_USE_TAG, SVGConstants.SVG_SVG_TAG, SVGConstants.SVG_A_TAG, SVGConstants.SVG_SWITCH_TAG);
+
+    /** Elements that are only painted where they are referenced, which the graphics tree does not follow */
+    private static final Set<String> REFERENCED_ELEMENTS = Set.of(SVGConstants.SVG_DEFS_TAG,
+            SVGConstants.SVG_SYMBOL_TAG, SVGConstants.SVG_CLIP_PATH_TAG, SVGConstants.SVG_MASK_TAG,
+            SVGConstants.SVG_PATTERN_TAG, SVGConstants.SVG_LINEAR_GRADIENT_TAG,
+            SVGConstants.SVG_RADIAL_GRADIENT_TAG, SVGConstants.SVG_FILTER_TAG, SVGConstants.SVG_MARKER_TAG,
+            SVGConstants.SVG_STYLE_TAG, SVGConstants.SVG_FONT_TAG, SVGConstants.SVG_FONT_FACE_TAG);
+
+    /** The length of a random id, which shorter attribute values cannot contain */
+    private static final int RANDOM_ID_LENGTH = 36;
+
+    /** Added around changed areas so strokes and antialiasing are covered, in user units */
+    private static final double AREA_MARGIN = 2.0;
+
+    /**
+     * The outcome of a patch.
+     *
+     * @param changedAreas The areas of the page that may have changed, in the coordinates the graphics tree is
+     *                     painted in. Empty if the documents were the same.
+     * @param areasKnown   False if some change could not be located, so the whole page should be considered
+     *                     changed
+     */
+    public record Result(List<Rectangle2D> changedAreas, boolean areasKnown) {
+    }
+
+    /**
+     * The random ids seen so far in the live and the updated document, each numbered by order of appearance
+     */
+    private record RandomIds(Map<String, String> live, Map<String, String> updated) {
+        RandomIds() {
+            this(new HashMap<>(), new HashMap<>());
+        }
+
+        boolean same(String liveValue, String updatedValue) {
+            return normalize(liveValue, live).equals(normalize(updatedValue, updated));
+        }
+
+        private static String normalize(String value, Map<String, String> ids) {
+            if ((value.length() < RANDOM_ID_LENGTH) || (value.indexOf('-') < 0)) {
+                return value;
+            }
+            return RecordSheetExporter.RANDOM_ID.matcher(value)
+                    .replaceAll(match -> ids.computeIfAbsent(match.group(), id -> "id" + ids.size()));
+        }
+    }
+
+    private SVGDocumentPatcher() {
+    }
+
+    /**
+     * Replaces the parts of the live document that differ from the updated document with copies from the updated
+     * document. The updated document is not modified.
+     *
+     * <p>If {@code null} is returned, the documents could not be patched. The live document is left unchanged if
+     * the documents could not be matched up, but if the graphics tree failed to follow a replacement, the live
+     * document has been partly modified and its graphics tree must be built again from the updated document.</p>
+     *
+     * @param live    The document the graphics tree was built from
+     * @param updated A newly filled document of the same page
+     * @return The areas that changed, or {@code null} if the live document could not be patched
+     */
+    public static @Nullable Result patch(Document live, Document updated) {
+        Element liveRoot = live.getDocumentElement();
+        Element updatedRoot = updated.getDocumentElement();
+        RandomIds ids = new RandomIds();
+        if ((liveRoot == null) || (updatedRoot == null) || !sameElement(liveRoot, updatedRoot, ids)) {
+            return null;
+        }
+        Map<Element, Element> differences = new IdentityHashMap<>();
+        if (!diffChildren(liveRoot, updatedRoot, differences, ids)) {
+            return null;
+        }
+
+        // Lift each difference to the nearest graphics element, keeping only the outermost ones
+        Map<Element, Element> replacements = new IdentityHashMap<>();
+        for (Map.Entry<Element, Element> difference : differences.entrySet()) {
+            Element liveElement = difference.getKey();
+            Element updatedElement = difference.getValue();
+            while (!GRAPHICS_ELEMENTS.contains(liveElement.getLocalName())) {
+                liveElement = (Element) liveElement.getParentNode();
+                updatedElement = (Element) updatedElement.getParentNode();
+            }
+            if ((liveElement == liveRoot) || isReferenced(liveElement)) {
+                return null;
+            }
+            replacements.put(liveElement, updatedElement);
+        }
+        replacements.keySet().removeIf(element -> hasAncestorIn(element, replacements));
+
+        List<Rectangle2D> changedAreas = new ArrayList<>();
+        boolean areasKnown = true;
+        for (Map.Entry<Element, Element> replacement : replacements.entrySet()) {
+            Element liveElement = replacement.getKey();
+            boolean wasHidden = isHidden(liveElement);
+            boolean hadContext = hasContext(liveElement);
+            Rectangle2D before = paintedArea(liveElement);
+            Element copy = (Element) live.importNode(replacement.getValue(), true);
+            liveElement.getParentNode().replaceChild(copy, liveElement);
+            boolean hidden = isHidden(copy);
+            Rectangle2D after = paintedArea(copy);
+            if ((after == null) && !hidden && !hasContext(copy)) {
+                // The graphics tree didn't pick up the new element
+                return null;
+            }
+            if (before != null) {
+                changedAreas.add(before);
+            } else if (!wasHidden && !hadContext) {
+                areasKnown = false;
+            }
+            if (after != null) {
+                changedAreas.add(after);
+            }
+        }
+        return new Result(changedAreas, areasKnown);
+    }
+
+    /**
+     * Compares the children of two elements whose own attributes match. Child elements that differ are added to
+     * the differences.
+     *
+     * @return false if the children differ in number, kind or text, so the parent has to be replaced
+     */
+    private static boolean diffChildren(Element live, Element updated, Map<Element, Element> differences,
+            RandomIds ids) {
+        NodeList liveChildren = live.getChildNodes();
+        NodeList updatedChildren = updated.getChildNodes();
+        if (liveChildren.getLength() != updatedChildren.getLength()) {
+            return false;
+        }
+        for (int i = 0; i < liveChildren.getLength(); i++) {
+            Node liveChild = liveChildren.item(i);
+            Node updatedChild = updatedChildren.item(i);
+            if (liveChild.getNodeType() != updatedChild.getNodeType()) {
+                return false;
+            }
+            if (liveChild instanceof Element liveElement) {
+                Element updatedElement = (Element) updatedChild;
+                if (!sameElement(liveElement, updatedElement, ids)
+                        || !diffChildren(liveElement, updatedElement, differences, ids)) {
+                    differences.put(liveElement, updatedElement);
+                }
+            } else if ((liveChild instanceof CharacterData liveText)
+                    && (liveChild.getNodeType() != Node.COMMENT_NODE)
+                    && !liveText.getData().equals(((CharacterData) updatedChild).getData())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameElement(Element live, Element updated, RandomIds ids) {
+        if (!Objects.equals(live.getNamespaceURI(), updated.getNamespaceURI())
+                || !Objects.equals(live.getLocalName(), updated.getLocalName())) {
+            return false;
+        }
+        NamedNodeMap liveAttributes = live.getAttributes();
+        NamedNodeMap updatedAttributes = updated.getAttributes();
+        if (liveAttributes.getLength() != updatedAttributes.getLength()) {
+            return false;
+        }
+        for (int i = 0; i < liveAttributes.getLength(); i++) {
+            Attr attribute = (Attr) liveAttributes.item(i);
+            String localName = (attribute.getLocalName() != null) ? attribute.getLocalName() : attribute.getName();
+            Attr other = (Attr) updatedAttributes.getNamedItemNS(attribute.getNamespaceURI(), localName);
+            if ((other == null) || !ids.same(attribute.getValue(), other.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isReferenced(Element element) {
+        for (Node node = element; node instanceof Element; node = node.getParentNode()) {
+            if (REFERENCED_ELEMENTS.contains(node.getLocalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAncestorIn(Element element, Map<Element, Element> elements) {
+        for (Node node = element.getParentNode(); node instanceof Element; node = node.getParentNode()) {
+            if (elements.containsKey(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHidden(Element element) {
+        for (Node node = element; node instanceof Element ancestor; node = node.getParentNode()) {
+            if (SVGConstants.SVG_NONE_VALUE.equals(ancestor.getAttributeNS(null, SVGConstants.CSS_DISPLAY_PROPERTY))
+                    || SVGConstants.SVG_NONE_VALUE.equals(PrintRecordSheet.parseStyle(ancestor,
+                            SVGConstants.CSS_DISPLAY_PROPERTY))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasContext(Element element) {
+        return (element instanceof SVGOMElement svgElement) && (svgElement.getSVGContext() != null);
+    }
+
+    /**
+     * @return The area the element is painted in, in the coordinates the graphics tree is painted in, or null
+     *       if the element has no graphics node or nothing to paint
+     */
+    private static @Nullable Rectangle2D paintedArea(Element element) {
+        if (!(element instanceof SVGOMElement svgElement)) {
+            return null;
+        }
+        SVGContext context = svgElement.getSVGContext();
+        if (context == null) {
+            return null;
+        }
+        Rectangle2D bounds = context.getBBox();
+        if (bounds == null) {
+            return null;
+        }
+        Rectangle2D padded = new Rectangle2D.Double(bounds.getX() - AREA_MARGIN, bounds.getY() - AREA_MARGIN,
+                bounds.getWidth() + 2 * AREA_MARGIN, bounds.getHeight() + 2 * AREA_MARGIN);
+        AffineTransform transform = context.getGlobalTransform();
+        return (transform == null) ? padded : transform.createTransformedShape(padded).getBounds2D();
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.dom.AbstractDocument;
+import org.apache.batik.dom.util.DOMUtilities;
+import org.apache.batik.dom.util.SAXDocumentFactory;
+import org.apache.batik.util.XMLResourceDescriptor;
+import org.w3c.dom.Document;
+
+import megamek.common.annotations.Nullable;
+import megamek.logging.MMLogger;
+import megameklab.util.CConfig;
+
+/**
+ * Process-wide cache of parsed record sheet templates. Each template file is parsed once and kept as a pristine
+ * document; callers receive a deep copy that they are free to modify. Entries are keyed by the template path and
+ * invalidated when the file's modification time changes. Besides the plain template, the cache can hold prepared
+ * variants of it, such as the template with the fonts and colors of a set of print options applied, so that this
+ * work is not repeated for every page. The total size of the cached documents is bounded by an estimated memory
+ * budget, and the least recently used templates are evicted when it is exceeded.
+ */
+public final class SVGTemplateCache {
+    private static final MMLogger logger = MMLogger.create(SVGTemplateCache.class);
+
+    /** Default memory budget in megabytes, used if {@link CConfig#RS_TEMPLATE_CACHE_MB} is not set */
+    public static final int DEFAULT_BUDGET_MB = 64;
+
+    /**
+     * Rough ratio of the heap used by a parsed Batik document to the size of the source file. This only needs to be
+     * good enough to keep the cache in the right order of magnitude.
+     */
+    private static final int DOM_SIZE_FACTOR = 8;
+
+    private static final SVGTemplateCache instance = new SVGTemplateCache(
+            CConfig.getIntParam(CConfig.RS_TEMPLATE_CACHE_MB, DEFAULT_BUDGET_MB) * 1024L * 1024L);
+
+    /** Collects the templates and other input files used by the current thread while a sheet is rendered, if set */
+    private static final ThreadLocal<Set<Path>> templatesUsed = new ThreadLocal<>();
+
+    private final LinkedHashMap<TemplateKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long maxBytes;
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record Entry(Document document, long lastModified, long estimatedBytes) {
+    }
+
+    /** A template file and the variant it was prepared for; the plain template has an empty variant */
+    private record TemplateKey(Path path, String variant) {
+    }
+
+    /**
+     * @return The shared template cache
+     */
+    public static SVGTemplateCache getInstance() {
+        return instance;
+    }
+
+    SVGTemplateCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Starts or stops recording the templates requested by the current thread. While recording, the normalized path
+     * of every template requested on this thread is added to the set, along with the other input files reported
+     * through {@link #recordInput(Path)}.
+     *
+     * @param templates The set to add template paths to, or {@code null} to stop recording
+     */
+    public static void recordTemplatesUsed(@Nullable Set<Path> templates) {
+        if (templates == null) {
+            templatesUsed.remove();
+        } else {
+            templatesUsed.set(templates);
+        }
+    }
+
+    /**
+     * Adds a file or directory other than a template that the sheet being rendered on this thread depends on, such
+     * as a pip pattern or an embedded image, to the recorded templates. Does nothing if the thread is not recording.
+     *
+     * @param path The file or directory
+     */
+    static void recordInput(Path path) {
+        Set<Path> recording = templatesUsed.get();
+        if (recording != null) {
+            recording.add(path.toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * Returns a private copy of the template at the given path, parsing the file only if it is not already cached
+     * or has been modified since it was cached.
+     *
+     * @param filePath The path to the SVG file
+     * @return A new document that the caller may modify, or {@code null} if the file could not be read or parsed
+     */
+    public @Nullable Document getDocument(Path filePath) {
+        return getDocument(filePath, "", null);
+    }
+
+    /**
+     * Returns a private copy of a prepared variant of the template at the given path. The first time a variant is
+     * requested, the parsed template is passed to the preparation function and the result is cached as the base
+     * layer for that variant. The plain template is copied for this if it is cached, and parsed otherwise; it is not
+     * added to the cache. Later requests for the same variant copy the prepared document without repeating the
+     * preparation. Each request counts as one hit or miss.
+     *
+     * @param filePath The path to the SVG file
+     * @param variant  Identifies the preparation; callers must use the same variant only for equivalent preparations
+     * @param prepare  Applies the changes that are the same for every document of the variant, or {@code null} if
+     *                 the template is used as it is
+     * @return A new document that the caller may modify, or {@code null} if the file could not be read or parsed
+     */
+    public @Nullable Document getDocument(Path filePath, String variant, @Nullable Consumer<Document> prepare) {
+        final Path path = filePath.toAbsolutePath().normalize();
+        Set<Path> recording = templatesUsed.get();
+        if (recording != null) {
+            recording.add(path);
+        }
+        long lastModified;
+        try {
+            lastModified = Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException ex) {
+            logger.error("Could not read SVG file " + path, ex);
+            return null;
+        }
+
+        final TemplateKey key = new TemplateKey(path, (prepare == null) ? "" : variant);
+        Entry entry = lookup(key, lastModified);
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            Document document;
+            if (prepare == null) {
+                document = parse(path);
+            } else {
+                // Prepare the variant from the cached plain template if there is one, else from a fresh parse
+                Entry plain = lookup(new TemplateKey(path, ""), lastModified);
+                document = (plain == null) ? parse(path) : copy(plain.document());
+                if (document != null) {
+                    prepare.accept(document);
+                }
+            }
+            if (document == null) {
+                return null;
+            }
+            entry = new Entry(document, lastModified, estimateSize(path));
+            store(key, entry);
+        }
+        return copy(entry.document());
+    }
+
+    private synchronized @Nullable Entry lookup(TemplateKey key, long lastModified) {
+        Entry entry = entries.get(key);
+        if ((entry != null) && (entry.lastModified() != lastModified)) {
+            remove(key);
+            entry = null;
+        }
+        return entry;
+    }
+
+    private @Nullable Document parse(Path filePath) {
+        try (InputStream is = Files.newInputStream(filePath)) {
+            SAXDocumentFactory df = new SAXDocumentFactory(SVGDOMImplementation.getDOMImplementation(),
+                    XMLResourceDescriptor.getXMLParserClassName());
+            return df.createDocument(filePath.toUri().toASCIIString(), is);
+        } catch (Exception ex) {
+            logger.error("Failed to parse SVG file " + filePath, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a deep copy of a cached document. Batik does not guarantee that concurrent reads of a document are safe,
+     * so copies of the same template are made one at a time.
+     */
+    private static Document copy(Document template) {
+        synchronized (template) {
+            Document document = DOMUtilities.deepCloneDocument(template, SVGDOMImplementation.getDOMImplementation());
+            if (document instanceof AbstractDocument abstractDocument) {
+                // Needed to resolve any relative references in the template
+                abstractDocument.setDocumentURI(template.getDocumentURI());
+            }
+            return document;
+        }
+    }
+
+    private static long estimateSize(Path filePath) {
+        try {
+            return Files.size(filePath) * DOM_SIZE_FACTOR;
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private synchronized void store(TemplateKey key, Entry entry) {
+        if (entry.estimatedBytes() > maxBytes) {
+            // Never going to fit; don't flush everything else to make room for it.
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        currentBytes += entry.estimatedBytes();
+        evict();
+    }
+
+    private void remove(TemplateKey key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            currentBytes -= old.estimatedBytes();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<TemplateKey, Entry>> iter = entries.entrySet().iterator();
+        while ((currentBytes > maxBytes) && iter.hasNext()) {
+            currentBytes -= iter.next().getValue().estimatedBytes();
+            iter.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Changes the memory budget for the cache, evicting entries if necessary.
+     *
+     * @param maxBytes The maximum estimated size of all cached templates, in bytes
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * Removes all cached templates. The hit and miss counters are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return currentBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SVGTemplateCache[%d entries, %d KiB, %d hits, %d misses, %d evictions]",
+                size(), getEstimatedBytes() / 1024, getHits(), getMisses(), getEvictions());
+    }
+}
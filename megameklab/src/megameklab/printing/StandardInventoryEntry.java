@@ -22,10 +22,10 @@ package megameklab.printing;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,7 +49,7 @@ import megamek.common.ITechnology;
 public class StandardInventoryEntry implements InventoryEntry, Comparable<StandardInventoryEntry> {
     // Cache for whether equipment on a mixed tech unit needs to state explicitly whether
     // it's IS or Clan
-    private static final Map<EquipmentType, Boolean> showMixedTechBase = new HashMap<>();
+    private static final Map<EquipmentType, Boolean> showMixedTechBase = new ConcurrentHashMap<>();
 
     private final Mounted<?> mount;
 
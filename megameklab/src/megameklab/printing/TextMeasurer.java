@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.font.FontRenderContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Measures text for record sheet layout without asking AWT to lay out every candidate string. For each font and
+ * rendering context the advance of every Latin-1 character is looked up once and kept in a table; the width of a
+ * string is the sum of the advances of its characters, which is how AWT measures simple text. Fonts are derived
+ * without kerning or ligatures, so there are no pair adjustments to apply.
+ *
+ * <p>Text that contains other characters or needs complex layout is measured by AWT as before, and those widths are
+ * memoized in a bounded cache. Summing a table is cheaper than looking up a memo, so table widths are not memoized.
+ * This class is thread safe; the tables and the memo are concurrent maps, so render workers measuring text at the
+ * same time do not wait for each other.</p>
+ */
+final class TextMeasurer {
+    /** The characters covered by the advance tables */
+    private static final int TABLE_SIZE = 256;
+
+    /** The maximum number of string widths measured by AWT that are kept in the memo */
+    private static final int MAX_MEMO_ENTRIES = 16384;
+
+    private static final TextMeasurer instance = new TextMeasurer();
+
+    private record MetricsKey(Font font, FontRenderContext frc) {
+    }
+
+    private record WidthKey(MetricsKey metrics, String text) {
+    }
+
+    private final Map<MetricsKey, float[]> advanceTables = new ConcurrentHashMap<>();
+    private final Map<MetricsKey, Float> heights = new ConcurrentHashMap<>();
+    private final Map<WidthKey, Double> widths = new ConcurrentHashMap<>();
+
+    /**
+     * @return The shared text measurer
+     */
+    static TextMeasurer getInstance() {
+        return instance;
+    }
+
+    TextMeasurer() {
+    }
+
+    /**
+     * Returns the width of the text, which is the width of {@link Font#getStringBounds(String, FontRenderContext)}.
+     * For text measured from the advance tables, the advances are added up as floats in the order of the text,
+     * while AWT adds up glyph positions. The results can differ by float rounding, far less than a thousandth of a
+     * point.
+     *
+     * @param text The text to measure
+     * @param font The font, including its size
+     * @param frc  The rendering context the text is measured in
+     * @return The advance width of the text
+     */
+    double getWidth(String text, Font font, FontRenderContext frc) {
+        MetricsKey metrics = new MetricsKey(font, frc);
+        char[] chars = text.toCharArray();
+        if (isTableText(chars)) {
+            float[] advances = advanceTables.computeIfAbsent(metrics, TextMeasurer::createAdvanceTable);
+            float width = 0f;
+            for (char c : chars) {
+                width += advances[c];
+            }
+            return width;
+        }
+        WidthKey key = new WidthKey(metrics, text);
+        Double width = widths.get(key);
+        if (width == null) {
+            width = font.getStringBounds(text, frc).getWidth();
+            if (widths.size() >= MAX_MEMO_ENTRIES) {
+                // Rarely reached; starting over is cheaper than tracking which entries are recent
+                widths.clear();
+            }
+            widths.put(key, width);
+        }
+        return width;
+    }
+
+    private static boolean isTableText(char[] chars) {
+        for (char c : chars) {
+            if (c >= TABLE_SIZE) {
+                return false;
+            }
+        }
+        return !Font.textRequiresLayout(chars, 0, chars.length);
+    }
+
+    private static float[] createAdvanceTable(MetricsKey metrics) {
+        float[] advances = new float[TABLE_SIZE];
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            advances[c] = (float) metrics.font().getStringBounds(String.valueOf((char) c), metrics.frc()).getWidth();
+        }
+        return advances;
+    }
+
+    /**
+     * Returns the line height of a font. It is looked up once per font and rendering context.
+     *
+     * @param font    The font, including its size
+     * @param frc     The rendering context the metrics are provided for
+     * @param metrics Provides the font metrics for a font if the height is not known yet
+     * @return The height of a line of text, as given by {@link FontMetrics#getHeight()}
+     */
+    float getHeight(Font font, FontRenderContext frc, Function<Font, FontMetrics> metrics) {
+        return heights.computeIfAbsent(new MetricsKey(font, frc), key -> (float) metrics.apply(font).getHeight());
+    }
+}
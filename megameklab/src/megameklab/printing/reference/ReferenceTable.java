@@ -14,6 +14,7 @@
 package megameklab.printing.reference;
 
 import megameklab.printing.PrintRecordSheet;
+import megameklab.util.CConfig;
 import org.apache.batik.util.SVGConstants;
 import org.w3c.dom.Element;
 
@@ -112,6 +113,19 @@ public abstract class ReferenceTable extends ReferenceTableBase {
         return count;
     }
 
+    @Override
+    protected Object getLayoutKey(double x, double y, double width, double height) {
+        // Rows are copied since laying out the table strips the section markers from them
+        List<List<String>> rows = new ArrayList<>();
+        for (List<String> row : data) {
+            rows.add(new ArrayList<>(row));
+        }
+        return Arrays.asList(getClass(), getTitle(),
+                CConfig.getParam(CConfig.RS_FONT, PrintRecordSheet.DEFAULT_TYPEFACE), x, y, width, height,
+                lineCount(), new ArrayList<>(headers), rows, new ArrayList<>(notes), new ArrayList<>(colOffsets),
+                new HashMap<>(anchor), new HashMap<>(fontWeight), defaultAnchor);
+    }
+
     @Override
     protected Element createTableBody(double x, double y, double width, double height, float fontSize) {
         double rowSpacing = height / (lineCount() + 2);
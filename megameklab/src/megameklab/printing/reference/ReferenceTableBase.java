@@ -13,6 +13,7 @@
  */
 package megameklab.printing.reference;
 
+import megamek.common.annotations.Nullable;
 import megameklab.printing.PrintRecordSheet;
 import megameklab.util.CConfig;
 import org.apache.batik.util.SVGConstants;
@@ -61,6 +62,26 @@ abstract public class ReferenceTableBase {
     }
 
     public Element createTable(double x, double y, double width, double height) {
+        Object key = getLayoutKey(x, y, width, height);
+        if (key == null) {
+            return layoutTable(x, y, width, height);
+        }
+        return TableLayoutCache.getInstance().getTable(key, sheet.getSVGDocument(),
+                () -> layoutTable(x, y, width, height));
+    }
+
+    /**
+     * Identifies the layout of this table at a position and size. Tables with equal keys must produce identical
+     * elements, which allows the layout to be done once and copied to other sheets. Subclasses that can provide such
+     * a key override this; any subclass that changes how the table is laid out must take that into account.
+     *
+     * @return The key, or {@code null} if the table is laid out for every sheet
+     */
+    protected @Nullable Object getLayoutKey(double x, double y, double width, double height) {
+        return null;
+    }
+
+    private Element layoutTable(double x, double y, double width, double height) {
         final Element g = sheet.getSVGDocument().createElementNS(svgNS, SVGConstants.SVG_G_TAG);
         g.setAttributeNS(null, SVGConstants.SVG_TRANSFORM_ATTRIBUTE,
                 String.format("%s(%f %f)", SVGConstants.SVG_TRANSLATE_VALUE, x, y));
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing.reference;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.util.SVGConstants;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import megameklab.printing.IdConstants;
+import megameklab.printing.PrintRecordSheet;
+
+/**
+ * Process-wide cache of laid out reference tables. Most tables have the same contents on every sheet of a unit
+ * type and are placed in the same spot, so they only need to be measured and laid out once. The layouts are kept
+ * in a private document and imported into each sheet's document as a copy.
+ */
+final class TableLayoutCache {
+    /** The maximum number of table layouts kept */
+    private static final int MAX_ENTRIES = 256;
+
+    private static final TableLayoutCache instance = new TableLayoutCache();
+
+    /** Owns the cached elements; they are never attached to its tree */
+    private final Document owner = SVGDOMImplementation.getDOMImplementation()
+            .createDocument(PrintRecordSheet.svgNS, SVGConstants.SVG_SVG_TAG, null);
+    private final Map<Object, Element> layouts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Element> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    static TableLayoutCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the table for the key, laying it out only if no table with the same key is cached.
+     *
+     * @param key    Identifies the contents, position and size of the table
+     * @param target The document the table is added to
+     * @param layout Lays out the table in the target document
+     * @return The table element, owned by the target document
+     */
+    Element getTable(Object key, Document target, Supplier<Element> layout) {
+        Element copy;
+        // Batik documents are not safe for concurrent use, so the owner document is only used while locked
+        synchronized (this) {
+            Element cached = layouts.get(key);
+            copy = (cached == null) ? null : (Element) target.importNode(cached, true);
+        }
+        if (copy != null) {
+            renewShadingIds(copy);
+            return copy;
+        }
+        Element table = layout.get();
+        synchronized (this) {
+            layouts.put(key, (Element) owner.importNode(table, true));
+        }
+        return table;
+    }
+
+    /**
+     * Row shading is switched on or off by id after the sheet is complete, so each copy needs its own ids.
+     */
+    private static void renewShadingIds(Element table) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(table);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if ((node instanceof Element element)
+                    && IdConstants.ROW_SHADING.equals(element.getAttribute(SVGConstants.SVG_CLASS_ATTRIBUTE))) {
+                element.setAttribute(SVGConstants.SVG_ID_ATTRIBUTE, UUID.randomUUID().toString());
+            }
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                stack.push(child);
+            }
+        }
+    }
+}
@@ -537,6 +537,9 @@ public class ForceBuildUI extends JFrame implements ListSelectionListener, Actio
         duplicateItem.addActionListener(e -> {
             for (Entity entity : selectedEntities) {
                 Entity clonedEntity = UnitUtil.cloneUnit(entity);
+                if (clonedEntity == null) {
+                    continue; // The error has been logged; the other units are still duplicated
+                }
                 UnitUtil.resetUnit(clonedEntity);
                 clonedEntity.setCrew(new Crew(entity.defaultCrewType()));
                 addEntity(clonedEntity);
@@ -47,6 +47,7 @@ class ExportSettingsPanel extends JPanel {
     private final JComboBox<String> cbFont = new JComboBox<>();
     private final JTextArea txtFontDisplay = new JTextArea();
     private final JCheckBox chkProgressBar = new JCheckBox();
+    private final JCheckBox chkPrintViaPdf = new JCheckBox();
     private final JCheckBox chkShowReferenceTables = new JCheckBox();
     private final JCheckBox chkShowCondensedTables = new JCheckBox();
     private final JCheckBox chkShowQuirks = new JCheckBox();
@@ -124,6 +125,10 @@ class ExportSettingsPanel extends JPanel {
         chkProgressBar.setToolTipText(resourceMap.getString("ConfigurationDialog.chkProgressBar.tooltip"));
         chkProgressBar.setSelected(CConfig.getBooleanParam(CConfig.RS_PROGRESS_BAR));
 
+        chkPrintViaPdf.setText(resourceMap.getString("ConfigurationDialog.chkPrintViaPdf.text"));
+        chkPrintViaPdf.setToolTipText(resourceMap.getString("ConfigurationDialog.chkPrintViaPdf.tooltip"));
+        chkPrintViaPdf.setSelected(CConfig.getBooleanParam(CConfig.RS_PRINT_VIA_PDF));
+
         chkColor.setText(resourceMap.getString("ConfigurationDialog.chkColor.text"));
         chkColor.setToolTipText(resourceMap.getString("ConfigurationDialog.chkColor.tooltip"));
         chkColor.setSelected(CConfig.getBooleanParam(CConfig.RS_COLOR));
@@ -242,6 +247,7 @@ class ExportSettingsPanel extends JPanel {
         JPanel gridPanel = new JPanel(new SpringLayout());
         JPanel innerGridPanel = new JPanel(new SpringLayout());
         gridPanel.add(chkProgressBar);
+        gridPanel.add(chkPrintViaPdf);
         gridPanel.add(paperPanel);
         gridPanel.add(fontPanel);
         gridPanel.add(weaponSortOrderPanel);
@@ -267,7 +273,7 @@ class ExportSettingsPanel extends JPanel {
         gridPanel.add(scalePanel);
 
         SpringUtilities.makeCompactGrid(innerGridPanel, 8, 2, 0, 0, 15, 6);
-        SpringUtilities.makeCompactGrid(gridPanel, 8, 1, 0, 0, 15, 6);
+        SpringUtilities.makeCompactGrid(gridPanel, 9, 1, 0, 0, 15, 6);
         gridPanel.setBorder(new EmptyBorder(20, 30, 20, 30));
         setLayout(new FlowLayout(FlowLayout.LEFT));
         add(gridPanel);
@@ -278,6 +284,7 @@ class ExportSettingsPanel extends JPanel {
         recordSheetSettings.put(CConfig.RS_PAPER_SIZE, PaperSize.values()[cbPaper.getSelectedIndex()].toString());
         recordSheetSettings.put(CConfig.RS_FONT, (String) cbFont.getSelectedItem());
         recordSheetSettings.put(CConfig.RS_PROGRESS_BAR, String.valueOf(chkProgressBar.isSelected()));
+        recordSheetSettings.put(CConfig.RS_PRINT_VIA_PDF, Boolean.toString(chkPrintViaPdf.isSelected()));
         recordSheetSettings.put(CConfig.RS_COLOR, Boolean.toString(chkColor.isSelected()));
         recordSheetSettings.put(CConfig.RS_ROW_SHADING, Boolean.toString(chkRowShading.isSelected()));
         recordSheetSettings.put(CConfig.RS_REFERENCE, Boolean.toString(chkShowReferenceTables.isSelected()));
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.ui.generalUnit;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import megamek.common.annotations.Nullable;
+import megameklab.util.CConfig;
+
+/**
+ * Process-wide cache of rendered record sheet preview tiles. A preview page is rendered at each zoom level as a grid
+ * of fixed-size tiles, so only the tiles that are visible have to be rendered and kept in memory. The total size of
+ * the tile images is bounded by a memory budget, and the least recently used tiles are evicted when it is exceeded.
+ */
+final class PreviewTileCache {
+    /** Default memory budget in megabytes, used if {@link CConfig#RS_PREVIEW_CACHE_MB} is not set */
+    static final int DEFAULT_BUDGET_MB = 96;
+
+    /** The width and height of a full tile, in pixels */
+    static final int TILE_SIZE = 256;
+
+    private static final PreviewTileCache instance = new PreviewTileCache(
+            CConfig.getIntParam(CConfig.RS_PREVIEW_CACHE_MB, DEFAULT_BUDGET_MB) * 1024L * 1024L);
+
+    /**
+     * Identifies a tile.
+     *
+     * @param page           The preview page; compared by identity
+     * @param contentVersion The version of the page content the tile was rendered from
+     * @param zoomKey        The zoom level, as returned by {@link #zoomKey(double)}
+     * @param column         The column of the tile in the page grid
+     * @param row            The row of the tile in the page grid
+     */
+    record TileKey(Object page, int contentVersion, long zoomKey, int column, int row) {
+    }
+
+    /**
+     * A rendered tile.
+     *
+     * @param image The tile image. Tiles in the last row and column of a page may be smaller than the full size.
+     * @param zoom  The exact zoom factor the tile was rendered at
+     */
+    record Tile(BufferedImage image, double zoom) {
+    }
+
+    private final LinkedHashMap<TileKey, Tile> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final long maxBytes;
+    private long currentBytes;
+
+    /**
+     * @return The shared tile cache
+     */
+    static PreviewTileCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param maxBytes The budget for the tile images
+     */
+    PreviewTileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Zoom factors that differ by less than the tolerance of the preview are treated as the same zoom level.
+     *
+     * @param zoom A zoom factor
+     * @return The key of the zoom level
+     */
+    static long zoomKey(double zoom) {
+        return Math.round(zoom * 1000.0);
+    }
+
+    /**
+     * @param key The tile key
+     * @return The tile, or null if it is not cached
+     */
+    synchronized @Nullable Tile get(TileKey key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @param key The tile key
+     * @return Whether the tile is cached. This does not count as a use of the tile.
+     */
+    synchronized boolean contains(TileKey key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Adds a tile and evicts the least recently used tiles if the budget is exceeded.
+     *
+     * @param key  The tile key
+     * @param tile The rendered tile
+     */
+    synchronized void put(TileKey key, Tile tile) {
+        Tile previous = entries.put(key, tile);
+        if (previous != null) {
+            currentBytes -= estimateSize(previous);
+        }
+        currentBytes += estimateSize(tile);
+        Iterator<Map.Entry<TileKey, Tile>> iter = entries.entrySet().iterator();
+        while ((currentBytes > maxBytes) && iter.hasNext()) {
+            Map.Entry<TileKey, Tile> eldest = iter.next();
+            if (eldest.getKey().equals(key)) {
+                // Always keep the tile that was just added
+                continue;
+            }
+            currentBytes -= estimateSize(eldest.getValue());
+            eldest.getValue().image().flush();
+            iter.remove();
+        }
+    }
+
+    /**
+     * Returns the cached tiles of a page at any zoom level and content version, which can be scaled to stand in for
+     * tiles that are still being rendered. This does not count as a use of the tiles.
+     *
+     * @param page The preview page
+     * @return The keys and tiles of the page
+     */
+    synchronized List<Map.Entry<TileKey, Tile>> tilesOf(Object page) {
+        List<Map.Entry<TileKey, Tile>> result = new ArrayList<>();
+        for (Map.Entry<TileKey, Tile> entry : entries.entrySet()) {
+            if (entry.getKey().page() == page) {
+                result.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes a tile, so it is rendered again when it is next shown.
+     *
+     * @param key The tile key
+     */
+    synchronized void remove(TileKey key) {
+        Tile tile = entries.remove(key);
+        if (tile != null) {
+            currentBytes -= estimateSize(tile);
+            tile.image().flush();
+        }
+    }
+
+    /**
+     * Removes all tiles of a page.
+     *
+     * @param page The preview page
+     */
+    synchronized void removePage(Object page) {
+        Iterator<Map.Entry<TileKey, Tile>> iter = entries.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<TileKey, Tile> entry = iter.next();
+            if (entry.getKey().page() == page) {
+                currentBytes -= estimateSize(entry.getValue());
+                entry.getValue().image().flush();
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * @return The estimated memory used by the cached tiles, in bytes
+     */
+    synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * @return The number of cached tiles
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static long estimateSize(Tile tile) {
+        return (long) tile.image().getWidth() * tile.image().getHeight() * 4L;
+    }
+}
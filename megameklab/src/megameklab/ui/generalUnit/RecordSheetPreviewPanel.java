@@ -51,6 +51,7 @@ import java.awt.event.MouseMotionAdapter;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
@@ -59,22 +60,22 @@ import java.awt.GraphicsEnvironment;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsConfiguration;
 import java.awt.Dimension;
-import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
@@ -86,15 +87,21 @@ import javax.swing.Timer;
 import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.ext.awt.RenderingHintsKeyExt;
 import org.apache.batik.ext.awt.image.GraphicsUtil;
+import org.w3c.dom.Document;
 
 import megamek.common.BTObject;
 import megamek.common.Entity;
+import megamek.common.annotations.Nullable;
 import megamek.logging.MMLogger;
+import megameklab.printing.LazySheetList;
 import megameklab.printing.PaperSize;
 import megameklab.printing.PrintRecordSheet;
 import megameklab.printing.PrintSmallUnitSheet;
 import megameklab.printing.RecordSheetOptions;
+import megameklab.printing.RenderScheduler;
+import megameklab.printing.SVGDocumentPatcher;
 import megameklab.util.UnitPrintManager;
+import megameklab.util.UnitSnapshot;
 
 /**
  * @author pavelbraginskiy
@@ -105,74 +112,36 @@ import megameklab.util.UnitPrintManager;
  */
 public class RecordSheetPreviewPanel extends JPanel {
     private static final MMLogger logger = MMLogger.create(RecordSheetPreviewPanel.class);
-    private static final int N_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
-    private static final ExecutorService renderExecutor = Executors.newFixedThreadPool(N_THREADS, new ThreadFactory() {
-        private final AtomicInteger threadNumber = new AtomicInteger(1);
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r, "RecordSheetRenderer-" + threadNumber.getAndIncrement());
-            t.setDaemon(true); // Allow JVM exit even if rendering threads are active
-            t.setPriority(Thread.MIN_PRIORITY + 1); // Render at lower priority
-            return t;
-        }
-    });
-
-    static {
-        // Shutdown hook to gracefully terminate the executor
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            logger.debug("Shutting down RecordSheetRenderer executor...");
-            renderExecutor.shutdown();
-            try {
-                if (!renderExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    renderExecutor.shutdownNow();
-                    logger.warn("RecordSheetRenderer executor did not terminate gracefully.");
-                } else {
-                    logger.debug("RecordSheetRenderer executor shut down successfully.");
-                }
-            } catch (InterruptedException e) {
-                renderExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-                logger.error("Interrupted while shutting down RecordSheetRenderer executor.", e);
-            }
-        }, "RecordSheetRenderer-ShutdownHook"));
-    }
-
-    private static class RenderResult {
-        final BufferedImage image;
-        final double zoomFactor; // The zoom used to render this image
-    
-        RenderResult(BufferedImage image, double zoomFactor) {
-            this.image = image;
-            this.zoomFactor = zoomFactor;
-        }
-    }
+    private static final RenderScheduler renderScheduler = RenderScheduler.getInstance();
 
     private class SheetPageInfo {
-        GraphicsNode graphicsNode; // The raw Batik node for this page
+        volatile GraphicsNode graphicsNode; // The raw Batik node for this page, only built while near the view
+        volatile Document document; // The document the node was built from, which the node follows
+        volatile LazySheetList.Entry sheetEntry; // The planned sheet this page belongs to
         final int originalSheetIndex; // Index of the PrintRecordSheet this page belongs to
         final int pageIndexInSheet; // Index of this page within its PrintRecordSheet
         final int globalPageIndex; // Overall index across all pages
         final double baseWidthPx; // Original width of the page in pixels (unscaled)
         final double baseHeightPx; // Original height of the page in pixels (unscaled)
 
-        SoftReference<BufferedImage> cachedImage; // The rendered image
-        volatile double imageRenderZoom = -1.0; // Zoom factor the cachedImage was rendered at
+        volatile int contentVersion = 0; // Incremented when the node is replaced; part of the tile keys
         volatile Future<?> pendingRenderTask = null; // Background task rendering this page
+        volatile Future<?> pendingBuildTask = null; // Background task building the node of this page
+        volatile boolean buildFailed = false; // Don't retry building a page that failed until its sheet changes
         volatile int renderVersion = 0; // To discard stale renders for this page
 
         // Calculated layout position (top-left corner, relative to panel origin at 1x
         // zoom)
         Point2D.Double layoutPosition = new Point2D.Double(0, 0);
 
-        SheetPageInfo(GraphicsNode node, int sheetIdx, int pageIdx, int globalIdx, double width, double height) {
-            this.graphicsNode = node;
+        SheetPageInfo(LazySheetList.Entry entry, int sheetIdx, int pageIdx, int globalIdx, double width,
+                double height) {
+            this.sheetEntry = entry;
             this.originalSheetIndex = sheetIdx;
             this.pageIndexInSheet = pageIdx;
             this.globalPageIndex = globalIdx;
             this.baseWidthPx = width;
             this.baseHeightPx = height;
-            this.cachedImage = new SoftReference<>(null);
         }
 
         synchronized void cancelPendingRender() {
@@ -187,8 +156,38 @@ public class RecordSheetPreviewPanel extends JPanel {
             return pendingRenderTask != null && !pendingRenderTask.isDone();
         }
 
-        boolean hasValidCacheForZoom(double targetZoom) {
-            return cachedImage != null && cachedImage.get() != null && Math.abs(imageRenderZoom - targetZoom) < 0.001;
+        synchronized void cancelPendingBuild() {
+            if (pendingBuildTask != null) {
+                pendingBuildTask.cancel(false);
+                pendingBuildTask = null;
+            }
+        }
+
+        boolean isBuildTaskActive() {
+            return pendingBuildTask != null && !pendingBuildTask.isDone();
+        }
+
+        /**
+         * Drops the node of a page that has moved away from the view. Its tiles stay cached.
+         */
+        synchronized void releaseNode() {
+            cancelPendingBuild();
+            cancelPendingRender();
+            graphicsNode = null;
+            document = null;
+        }
+
+        PreviewTileCache.TileKey tileKey(double zoom, Point tile) {
+            return new PreviewTileCache.TileKey(this, contentVersion, PreviewTileCache.zoomKey(zoom), tile.x, tile.y);
+        }
+
+        boolean hasAllTiles(double zoom, List<Point> tiles) {
+            for (Point tile : tiles) {
+                if (!tileCache.contains(tileKey(zoom, tile))) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -217,13 +216,15 @@ public class RecordSheetPreviewPanel extends JPanel {
     }
 
     // Zoom and pan state
-    public static final int MAX_PREVIEW_ENTITIES = 10;
     private final double DEFAULT_MIN_ZOOM = 0.1;
     private final double MAX_ZOOM = 4.0;
     private final double ZOOM_STEP = 0.2;
     private final double CLIPBOARD_ZOOM_SCALE = 4.0;
     private final int SPACE_BETWEEN_PAGES = 10; // Space between pages in pixels
     private final int DEFAULT_MARGINS = 5; // Default margins for the page
+    private final int BUILD_MARGIN_PAGES = 1; // Pages on each side of the view whose nodes are built ahead
+    private final int RETAIN_MARGIN_PAGES = 4; // Pages on each side of the view whose nodes are kept
+    private final int MAX_CLIPBOARD_PAGES = 10; // Pages copied to the clipboard, starting at the view
 
     private volatile double minZoom = DEFAULT_MIN_ZOOM; // Minimum zoom
     private volatile double minFitZoom = 1.0; // Minimum zoom to fit content
@@ -243,7 +244,11 @@ public class RecordSheetPreviewPanel extends JPanel {
     private List<BTObject> currentEntities = Collections.emptyList();
     private List<SheetPageInfo> sheetPages = Collections.synchronizedList(new ArrayList<>());
     private List<PrintRecordSheet> generatedSheets = null; // Cache generated sheets for clipboard
+    private final PreviewTileCache tileCache = PreviewTileCache.getInstance(); // Rendered page tiles, shared
     private final ReentrantLock sheetGenerationLock = new ReentrantLock(); // Lock for sheet generation
+    private final AtomicInteger sheetGeneration = new AtomicInteger(); // Incremented for each edit; older work stops
+    private volatile Future<?> pendingGenerationTask = null; // The queued or running sheet generation
+    private volatile boolean generatingSheets = false; // Sheets for a new set of units are being generated
     private int lastRegenerationEntitiesCount = 0; // Track last regeneration entities count for repaint optimization
 
     // Timers for debouncing actions
@@ -392,6 +397,8 @@ public class RecordSheetPreviewPanel extends JPanel {
                 // If we were fitted or zoomed out further, reset view to re-fit
                 if (zoomFactor <= oldMinFitZoom + 0.01) {
                     scheduleResetView();
+                } else {
+                    zoomRenderDebounceTimer.restart(); // More tiles may be visible now
                 }
             }
         });
@@ -418,8 +425,9 @@ public class RecordSheetPreviewPanel extends JPanel {
     }
 
     /**
-     * When this mode is active, the rendering of the SVG happens in a background thread and not in EDT.
-     * Can cause issues during unit editing, but is much faster for viewing. Use it when you are not editing the unit.
+     * When this mode is active, the sheets are created directly from the units shown. Otherwise they are created
+     * from a snapshot of the units taken on the EDT, so the units can be edited while the sheets are created in the
+     * background. Use it when you are not editing the unit.
      * 
      * @param fullAsyncMode
      */
@@ -427,6 +435,14 @@ public class RecordSheetPreviewPanel extends JPanel {
         this.fullAsyncMode = fullAsyncMode;
     }
 
+    /**
+     * @return The priority of the rendering work of this preview. The unit that is being edited comes before units
+     *       that are only browsed.
+     */
+    private RenderScheduler.Priority renderPriority() {
+        return fullAsyncMode ? RenderScheduler.Priority.THUMBNAIL : RenderScheduler.Priority.INTERACTIVE;
+    }
+
     private void upgradeScheduledAction(ScheduledAction action) {
         if (scheduledAction.getIdx() < action.getIdx()) {
             scheduledAction = action;
@@ -515,6 +531,7 @@ public class RecordSheetPreviewPanel extends JPanel {
                     isHighQualityPaint = true;
                     repaint();
                     updateScrollbars();
+                    requestRenderForAllPages(); // Render the tiles that were panned into view
                 }
             }
 
@@ -541,6 +558,7 @@ public class RecordSheetPreviewPanel extends JPanel {
                     lastMousePoint = e.getPoint();
                     repaint();
                     updateScrollbars();
+                    zoomRenderDebounceTimer.restart(); // Render newly visible tiles when the pan pauses
                 }
             }
         });
@@ -734,10 +752,12 @@ public class RecordSheetPreviewPanel extends JPanel {
             return; // If regeneration is already re-scheduled, skip this regenerate (we do the next one)
         }
         scheduledAction = ScheduledAction.NONE;
-        cleanupPageTasksAndData(); // Cancel tasks, clear page list
         generatedSheets = null; // Clear cached sheets
 
         if (currentEntities.isEmpty()) {
+            sheetGeneration.incrementAndGet(); // Drop any generation still running
+            cleanupPageTasksAndData(); // Cancel tasks, clear page list
+            generatingSheets = false;
             minFitZoom = 1.0; // Reset fit zoom
             zoomFactor = 1.0;
             panOffset.setLocation(0, 0);
@@ -750,27 +770,52 @@ public class RecordSheetPreviewPanel extends JPanel {
         }
         if (isShowing()) {
             // Generate sheets and pages in the background to avoid blocking EDT
-            if (lastRegenerationEntitiesCount != currentEntities.size()) {
+            final int generation = sheetGeneration.incrementAndGet();
+            final List<BTObject> entities = currentEntities;
+            final UnitSnapshot snapshot = takeSnapshot(entities);
+            generatingSheets = true;
+            if (lastRegenerationEntitiesCount != entities.size()) {
                 repaint(); // Trigger a repaint to show placeholders while generating
             }
-            renderExecutor.submit(() -> {
-                generateSheetPages(currentEntities);
-                lastRegenerationEntitiesCount = currentEntities.size(); // Update last regeneration count
-                if (isInitialRender) {
-                    isInitialRender = false;
-                    performResetView(); // Reset view once pages are generated
-                } else {
-                    minFitZoom = calculateMinimumFitZoom();
-                    if (zoomFactor < minFitZoom) {
-                        zoomFactor = minFitZoom; // Adjust zoom to fit if needed
-                    }
-                    panOffset.setLocation(
-                        constrainPanX(panOffset.getX()),
-                        constrainPanY(panOffset.getY()));
-                    requestRenderForAllPages();
+            submitGeneration(() -> {
+                final List<SheetPageInfo> newPages = generateSheetPages(entities, snapshot, generation);
+                if (newPages == null) {
+                    // Superseded by a newer edit, or the snapshot could not be restored; the old pages stay
+                    SwingUtilities.invokeLater(() -> {
+                        if (generation == sheetGeneration.get()) {
+                            generatingSheets = false;
+                            repaint();
+                        }
+                    });
+                    return;
                 }
+                // Only the finished pages are swapped in on the EDT
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != sheetGeneration.get()) {
+                        return;
+                    }
+                    generatingSheets = false;
+                    cleanupPageTasksAndData(); // The old pages are shown until the new ones are ready
+                    sheetPages.addAll(newPages);
+                    lastRegenerationEntitiesCount = entities.size(); // Update last regeneration count
+                    if (isInitialRender) {
+                        isInitialRender = false;
+                        performResetView(); // Reset view once pages are generated
+                    } else {
+                        minFitZoom = calculateMinimumFitZoom();
+                        if (zoomFactor < minFitZoom) {
+                            zoomFactor = minFitZoom; // Adjust zoom to fit if needed
+                        }
+                        panOffset.setLocation(
+                            constrainPanX(panOffset.getX()),
+                            constrainPanY(panOffset.getY()));
+                        requestRenderForAllPages();
+                    }
+                    repaint();
+                });
             });
         } else {
+            cleanupPageTasksAndData(); // Cancel tasks, clear page list
             upgradeScheduledAction(ScheduledAction.REGENERATE_AND_RESET); // Mark for regeneration, generation will happen when shown
         }
     }
@@ -794,104 +839,317 @@ public class RecordSheetPreviewPanel extends JPanel {
     }
 
     /**
-     * Generates the PrintRecordSheet objects and populates the sheetPages list.
+     * Plans the PrintRecordSheet objects and their pages. Sheets are created and their pages built only when the
+     * pages come near the view, so this is cheap for any number of units.
+     *
+     * @return The planned pages, or null if a newer edit arrived in the meantime or the units could not be copied
      */
-    private void generateSheetPages(List<BTObject> entitiesToGenerate) {
-        if (entitiesToGenerate == null || entitiesToGenerate.isEmpty()) {
-            return;
-        }
+    private @Nullable List<SheetPageInfo> generateSheetPages(List<BTObject> entitiesToGenerate,
+            @Nullable UnitSnapshot snapshot, int generation) {
         sheetGenerationLock.lock(); // Ensure only one thread generates sheets at a time
         try {
             RecordSheetOptions options = getRecordSheetOptions();
-            PaperSize pz = options.getPaperSize();
-
-            // This is one of the slowest parts
-            logger.debug("Starting UnitPrintManager.createSheets...");
-            long start = System.nanoTime();
-            List<PrintRecordSheet> tempGeneratedSheets;
-            if (fullAsyncMode) {
-                tempGeneratedSheets = UnitPrintManager.createSheets(
-                        entitiesToGenerate.subList(0, Math.min(entitiesToGenerate.size(), MAX_PREVIEW_ENTITIES)),
-                        oneUnitPerSheet, options, true);
-            } else {
-                tempGeneratedSheets = createSheetsInEDT(entitiesToGenerate.subList(0, Math.min(entitiesToGenerate.size(), MAX_PREVIEW_ENTITIES)), oneUnitPerSheet, options);
+            List<PrintRecordSheet> tempGeneratedSheets = createSheets(entitiesToGenerate, snapshot, generation,
+                    options);
+            if (tempGeneratedSheets == null) {
+                return null;
             }
+            this.generatedSheets = tempGeneratedSheets;
+            if (tempGeneratedSheets.isEmpty()) {
+                logger.warn("UnitPrintManager.createSheets returned no sheets.");
+                return Collections.emptyList();
+            }
+            List<SheetPageInfo> newPages = planPages(tempGeneratedSheets, options.getPaperSize());
+            logger.debug("Planned {} pages for {} sheets", newPages.size(), tempGeneratedSheets.size());
+            return newPages;
+        } finally {
+            sheetGenerationLock.unlock();
+        }
+    }
 
-            long end = System.nanoTime();
-            logger.debug("Finished UnitPrintManager.createSheets in {} ms", (end - start) / 1_000_000);
+    /**
+     * Takes a snapshot of the units that the sheets can be created from in the background while the units are
+     * edited. Call this on the EDT, where the units are edited.
+     *
+     * @return The snapshot, or null if the units are not edited while they are shown
+     */
+    private @Nullable UnitSnapshot takeSnapshot(List<BTObject> entities) {
+        if (fullAsyncMode || entities.isEmpty()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        UnitSnapshot snapshot = new UnitSnapshot(entities);
+        logger.debug("Took a snapshot of {} units in {} ms", entities.size(), (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
 
-            if (tempGeneratedSheets == null || tempGeneratedSheets.isEmpty()) {
-                logger.warn("UnitPrintManager.createSheets returned no sheets.");
-                this.generatedSheets = Collections.emptyList();
-                // Clear existing pages safely on EDT
-                SwingUtilities.invokeLater(() -> {
-                    sheetPages.clear();
-                    repaint();
-                });
-                return;
+    /**
+     * Creates the sheets for the units, using copies restored from the snapshot if there is one. The sheets and
+     * the units they print are only used by the preview, so they can be created and built on any thread.
+     *
+     * @return The sheets, or null if a newer edit arrived in the meantime or the snapshot could not be restored
+     */
+    private @Nullable List<PrintRecordSheet> createSheets(List<BTObject> entities, @Nullable UnitSnapshot snapshot,
+            int generation, RecordSheetOptions options) {
+        if (generation != sheetGeneration.get()) {
+            return null;
+        }
+        logger.debug("Starting UnitPrintManager.createSheets...");
+        long start = System.nanoTime();
+        List<BTObject> units = (snapshot == null) ? entities : snapshot.restore();
+        if (units == null) {
+            // Printing the live units here would race with the edits on the EDT, so this generation is skipped
+            return null;
+        }
+        if (generation != sheetGeneration.get()) {
+            return null;
+        }
+        List<PrintRecordSheet> sheets = UnitPrintManager.createSheets(units, oneUnitPerSheet, options, true);
+        logger.debug("Finished UnitPrintManager.createSheets in {} ms", (System.nanoTime() - start) / 1_000_000);
+        if (generation != sheetGeneration.get()) {
+            return null;
+        }
+        return (sheets == null) ? Collections.emptyList() : sheets;
+    }
+
+    /**
+     * Queues a sheet generation, dropping a queued one that has not started, since it is outdated.
+     */
+    private void submitGeneration(Runnable generation) {
+        Future<?> previous = pendingGenerationTask;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        pendingGenerationTask = renderScheduler.submit(renderPriority(), generation);
+    }
+
+    /**
+     * Lays out the pages of the planned sheets side by side. Only the page counts are needed, so no sheet is
+     * created and no node is built here.
+     */
+    private List<SheetPageInfo> planPages(List<PrintRecordSheet> sheets, PaperSize pz) {
+        List<SheetPageInfo> pages = new ArrayList<>();
+        List<LazySheetList.Entry> entries = LazySheetList.entries(sheets);
+        double currentXOffset = 0;
+        for (int sheetIndex = 0; sheetIndex < entries.size(); sheetIndex++) {
+            LazySheetList.Entry entry = entries.get(sheetIndex);
+            for (int pageIndexInSheet = 0; pageIndexInSheet < entry.getPageCount(); pageIndexInSheet++) {
+                // Use paper size as base, node bounds might be slightly different
+                SheetPageInfo pageInfo = new SheetPageInfo(entry, sheetIndex, pageIndexInSheet, pages.size(),
+                        pz.pxWidth, pz.pxHeight);
+                pageInfo.layoutPosition.setLocation(currentXOffset, 0); // Simple horizontal layout
+                pages.add(pageInfo);
+                currentXOffset += pz.pxWidth + SPACE_BETWEEN_PAGES; // Add spacing between pages
             }
+        }
+        return pages;
+    }
 
-            this.generatedSheets = tempGeneratedSheets; // Cache for clipboard
+    /**
+     * A built page: the node and the document it was built from, which stays linked to the node.
+     */
+    private record PageNode(GraphicsNode node, Document document) {
+    }
 
-            PageFormat pf = new PageFormat();
-            PaperSize paperDef = options.getPaperSize();
-            List<SheetPageInfo> newPages = new ArrayList<>();
-            int globalPageIndex = 0;
-            double currentXOffset = 0;
+    /**
+     * Creates the sheet of a page if needed and builds the node for the page.
+     *
+     * @return The node and its document, or null if it could not be built
+     */
+    private @Nullable PageNode buildPageNode(SheetPageInfo pageInfo, LazySheetList.Entry entry) {
+        PrintRecordSheet sheet = entry.getSheet(); // Can be slow
+        synchronized (sheet) { // A sheet holds the document of one page at a time
+            if (!fillPageDocument(pageInfo, sheet)) {
+                return null;
+            }
+            GraphicsNode node = sheet.build(); // Can be slow
+            return (node == null) ? null : new PageNode(node, sheet.getSVGDocument());
+        }
+    }
 
-            logger.debug("Generating GraphicsNodes for {} sheets...", generatedSheets.size());
-            start = System.nanoTime();
-            for (int sheetIndex = 0; sheetIndex < generatedSheets.size(); sheetIndex++) {
-                PrintRecordSheet sheet = generatedSheets.get(sheetIndex);
-                if (sheet == null)
-                    continue;
+    /**
+     * Creates the filled document for a page as the current document of the sheet. The caller must hold the lock
+     * on the sheet.
+     */
+    private boolean fillPageDocument(SheetPageInfo pageInfo, PrintRecordSheet sheet) {
+        PaperSize paperDef = getRecordSheetOptions().getPaperSize();
+        PageFormat pf = new PageFormat();
+        if (sheet instanceof PrintSmallUnitSheet) {
+            pf.setPaper(paperDef.createPaper());
+        } else {
+            pf.setPaper(paperDef.createPaper(DEFAULT_MARGINS, DEFAULT_MARGINS, DEFAULT_MARGINS, DEFAULT_MARGINS));
+        }
+        return sheet.createDocument(pageInfo.pageIndexInSheet, pf, false);
+    }
 
-                if (sheet instanceof PrintSmallUnitSheet) {
-                    pf.setPaper(paperDef.createPaper());
+    /**
+     * Updates the node of a page for new unit data by filling the page of the new sheet and patching only the
+     * parts of the page document that changed. The node follows the document, so only the changed elements are
+     * built again, and only the tiles that show the changed areas are dropped.
+     *
+     * @return false if the page could not be patched and has to be built again
+     */
+    private boolean patchPage(SheetPageInfo pageInfo, LazySheetList.Entry entry) {
+        final GraphicsNode node = pageInfo.graphicsNode;
+        final Document live = pageInfo.document;
+        if (node == null || live == null) {
+            return false;
+        }
+        PrintRecordSheet sheet = entry.getSheet();
+        synchronized (sheet) {
+            if (!fillPageDocument(pageInfo, sheet) || sheet.getSVGDocument() == null) {
+                return false;
+            }
+            synchronized (node) {
+                if (pageInfo.graphicsNode != node) {
+                    return false; // Released in the meantime
+                }
+                pageInfo.cancelPendingRender(); // Tiles being rendered may show the old content
+                Rectangle2D oldBounds = node.getBounds();
+                SVGDocumentPatcher.Result result = SVGDocumentPatcher.patch(live, sheet.getSVGDocument());
+                if (result == null) {
+                    pageInfo.document = null; // May be partly patched; the page is built again
+                    return false;
+                }
+                if (!result.areasKnown() || !Objects.equals(oldBounds, node.getBounds())) {
+                    pageInfo.contentVersion++; // The whole page may have changed
                 } else {
-                    pf.setPaper(paperDef.createPaper(DEFAULT_MARGINS, DEFAULT_MARGINS, DEFAULT_MARGINS, DEFAULT_MARGINS));
+                    invalidateTiles(pageInfo, node, result.changedAreas());
                 }
+                logger.debug("Patched page {} in place, {} areas changed", pageInfo.globalPageIndex,
+                        result.changedAreas().size());
+                return true;
+            }
+        }
+    }
 
-                int pageCount = sheet.getPageCount();
-                for (int pageIndexInSheet = 0; pageIndexInSheet < pageCount; pageIndexInSheet++) {
-                    try {
-                        sheet.createDocument(pageIndexInSheet, pf, false);
-                        GraphicsNode node = sheet.build(); // Can be slow
-
-                        if (node != null) {
-                            // Use paper size as base, node bounds might be slightly different
-                            double baseWidth = pz.pxWidth;
-                            double baseHeight = pz.pxHeight;
-
-                            SheetPageInfo pageInfo = new SheetPageInfo(node, sheetIndex, pageIndexInSheet,
-                                    globalPageIndex, baseWidth, baseHeight);
-                            pageInfo.layoutPosition.setLocation(currentXOffset, 0); // Simple horizontal layout
-                            newPages.add(pageInfo);
-
-                            currentXOffset += baseWidth + SPACE_BETWEEN_PAGES; // Add spacing between pages
-                            globalPageIndex++;
-                        } else {
-                            logger.warn("Failed to build GraphicsNode for sheet {}, page {}", sheetIndex,
-                                    pageIndexInSheet);
-                        }
-                    } catch (Exception e) {
-                        logger.error(
-                                "Error generating GraphicsNode for sheet " + sheetIndex + ", page " + pageIndexInSheet,
-                                e);
-                    }
+    /**
+     * Drops the cached tiles of the current content of a page that intersect any of the areas. The caller must
+     * hold the lock on the node.
+     *
+     * @param areas Areas in the coordinates the node is painted in, including its own transform
+     */
+    private void invalidateTiles(SheetPageInfo pageInfo, GraphicsNode node, List<Rectangle2D> areas) {
+        if (areas.isEmpty()) {
+            return;
+        }
+        // Tiles are painted with the transform of the node replaced, so the areas are taken out of it first
+        AffineTransform fromNode = new AffineTransform();
+        if (node.getTransform() != null) {
+            try {
+                fromNode = node.getTransform().createInverse();
+            } catch (NoninvertibleTransformException ex) {
+                pageInfo.contentVersion++;
+                return;
+            }
+        }
+        final int tileSize = PreviewTileCache.TILE_SIZE;
+        final int contentVersion = pageInfo.contentVersion;
+        for (Map.Entry<PreviewTileCache.TileKey, PreviewTileCache.Tile> entry : tileCache.tilesOf(pageInfo)) {
+            PreviewTileCache.TileKey key = entry.getKey();
+            if (key.contentVersion() != contentVersion) {
+                continue;
+            }
+            AffineTransform toPixels = getPageTransform(pageInfo, node, entry.getValue().zoom());
+            if (toPixels == null) {
+                tileCache.remove(key);
+                continue;
+            }
+            toPixels.concatenate(fromNode);
+            BufferedImage image = entry.getValue().image();
+            Rectangle tileBounds = new Rectangle(key.column() * tileSize, key.row() * tileSize,
+                    image.getWidth(), image.getHeight());
+            for (Rectangle2D area : areas) {
+                if (toPixels.createTransformedShape(area).intersects(tileBounds)) {
+                    tileCache.remove(key);
+                    break;
                 }
             }
-            end = System.nanoTime();
-            logger.debug("Finished generating {} GraphicsNodes in {} ms", globalPageIndex, (end - start) / 1_000_000);
-
-            // Update the main list on the EDT or ensure thread-safety
-            // Here we replace the whole list which is okay since sheetPages is synchronized
-            sheetPages.clear(); // Clear old pages before adding new ones
-            sheetPages.addAll(newPages);
+        }
+    }
 
-        } finally {
-            sheetGenerationLock.unlock();
+    /**
+     * Builds the nodes of the pages in and next to the view, and releases the nodes, and where possible the
+     * sheets, of pages that are far from it. Memory use therefore depends on the size of the view rather than on
+     * the number of units.
+     */
+    private void updateNodesNearView(double zoom) {
+        List<SheetPageInfo> pages = new ArrayList<>(sheetPages);
+        int firstVisible = -1;
+        int lastVisible = -1;
+        for (int i = 0; i < pages.size(); i++) {
+            SheetPageInfo pageInfo = pages.get(i);
+            double left = panOffset.getX() + pageInfo.layoutPosition.x * zoom;
+            double right = left + pageInfo.baseWidthPx * zoom;
+            if (right > 0 && left < getWidth()) {
+                if (firstVisible < 0) {
+                    firstVisible = i;
+                }
+                lastVisible = i;
+            }
         }
+        if (firstVisible < 0) {
+            return;
+        }
+        Set<LazySheetList.Entry> retainedEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<LazySheetList.Entry> releasedEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < pages.size(); i++) {
+            SheetPageInfo pageInfo = pages.get(i);
+            if (i >= firstVisible - RETAIN_MARGIN_PAGES && i <= lastVisible + RETAIN_MARGIN_PAGES) {
+                retainedEntries.add(pageInfo.sheetEntry);
+                boolean build = i >= firstVisible - BUILD_MARGIN_PAGES && i <= lastVisible + BUILD_MARGIN_PAGES
+                        && pageInfo.graphicsNode == null && !pageInfo.buildFailed && !pageInfo.isBuildTaskActive();
+                // A visible page whose tiles are all cached doesn't need its node
+                if (build && (i < firstVisible || i > lastVisible
+                        || !pageInfo.hasAllTiles(zoom, getVisibleTiles(pageInfo, zoom)))) {
+                    requestBuildForPage(pageInfo);
+                }
+            } else {
+                if (pageInfo.graphicsNode != null || pageInfo.isBuildTaskActive()) {
+                    pageInfo.releaseNode();
+                }
+                releasedEntries.add(pageInfo.sheetEntry);
+            }
+        }
+        releasedEntries.removeAll(retainedEntries);
+        for (LazySheetList.Entry entry : releasedEntries) {
+            entry.releaseSheet();
+        }
+    }
+
+    /**
+     * Submits a task that builds the node of a page. When it is done, the visible tiles of the page are requested.
+     */
+    private void requestBuildForPage(SheetPageInfo pageInfo) {
+        final LazySheetList.Entry entry = pageInfo.sheetEntry;
+        final int contentVersion = pageInfo.contentVersion;
+        final CompletableFuture<PageNode> buildFuture = CompletableFuture.supplyAsync(
+                () -> buildPageNode(pageInfo, entry), renderScheduler.executor(renderPriority()));
+        pageInfo.pendingBuildTask = buildFuture;
+
+        buildFuture.whenCompleteAsync((built, ex) -> {
+            // ---- EDT Thread ----
+            synchronized (pageInfo) {
+                if (pageInfo.pendingBuildTask != buildFuture) {
+                    return; // Released or replaced while building
+                }
+                pageInfo.pendingBuildTask = null;
+                if (ex != null) {
+                    logger.error("Error generating GraphicsNode for sheet {}, page {}", pageInfo.originalSheetIndex,
+                            pageInfo.pageIndexInSheet, ex);
+                    pageInfo.buildFailed = (pageInfo.sheetEntry == entry);
+                } else if (built == null) {
+                    logger.warn("Failed to build GraphicsNode for sheet {}, page {}", pageInfo.originalSheetIndex,
+                            pageInfo.pageIndexInSheet);
+                    pageInfo.buildFailed = (pageInfo.sheetEntry == entry);
+                } else if (pageInfo.sheetEntry == entry && pageInfo.contentVersion == contentVersion) {
+                    pageInfo.graphicsNode = built.node();
+                    pageInfo.document = built.document();
+                }
+            }
+            requestRenderForAllPages();
+            repaint();
+        }, SwingUtilities::invokeLater);
     }
     
     private void scheduleResetView() {
@@ -913,25 +1171,6 @@ public class RecordSheetPreviewPanel extends JPanel {
         updateTimer.restart(); // Restart update timer to debounce
     }
 
-    private List<PrintRecordSheet> createSheetsInEDT(List<BTObject> entitiesToGenerate, boolean singlePrint,
-            RecordSheetOptions options) {
-        if (!SwingUtilities.isEventDispatchThread()) {
-            // If not, use invokeAndWait to call this method on the EDT
-            final AtomicReference<List<PrintRecordSheet>> resultHolder = new AtomicReference<>();
-            try {
-                SwingUtilities.invokeAndWait(() -> 
-                    resultHolder.set(createSheetsInEDT(entitiesToGenerate, singlePrint, options))
-                );
-                return resultHolder.get();
-            } catch (Exception e) {
-                logger.error("Error dispatching createSheets to EDT", e);
-                return Collections.emptyList();
-            }
-        }
-        List<PrintRecordSheet> tempGeneratedSheets = UnitPrintManager.createSheets(entitiesToGenerate, singlePrint, options, true);
-        return tempGeneratedSheets;
-    }
-
     private void performUpdateSheetContentInPlace() {
         if (regenerateTimer.isRunning() || updateTimer.isRunning()) {
             return; // If regeneration is scheduled, skip in-place update
@@ -948,75 +1187,68 @@ public class RecordSheetPreviewPanel extends JPanel {
 
         repaint(); // Ensure placeholders might show if needed
 
-        renderExecutor.submit(() -> {
+        // The units are copied here, so a newer edit can't change them while the sheets are created
+        final int generation = sheetGeneration.incrementAndGet();
+        final List<BTObject> entities = currentEntities;
+        final UnitSnapshot snapshot = takeSnapshot(entities);
+
+        submitGeneration(() -> {
             List<PrintRecordSheet> newGeneratedSheets = null;
             List<SheetPageInfo> newPageInfos = new ArrayList<>();
             boolean structureChanged = false;
+            final Set<Integer> patchedPages = new HashSet<>();
 
-            // Step 1: Generate new sheets and nodes (Background Thread)
+            // Step 1: Plan new sheets and build the nodes of the pages near the view (Background Thread)
             sheetGenerationLock.lock();
             try {
-                logger.debug("Starting in-place UnitPrintManager.createSheets...");
-                long start = System.nanoTime();
                 // Regenerate sheets based on potentially updated entity state
                 RecordSheetOptions options = getRecordSheetOptions();
-                newGeneratedSheets = createSheetsInEDT(currentEntities.subList(0, Math.min(currentEntities.size(), MAX_PREVIEW_ENTITIES)), oneUnitPerSheet, options);
-                long end = System.nanoTime();
-                logger.debug("Finished in-place UnitPrintManager.createSheets in {} ms", (end - start) / 1_000_000);
-
+                newGeneratedSheets = createSheets(entities, snapshot, generation, options);
                 if (newGeneratedSheets == null) {
-                    newGeneratedSheets = Collections.emptyList();
+                    logger.debug("In-place update superseded by a newer edit or skipped");
+                    return;
                 }
                 this.generatedSheets = newGeneratedSheets; // Update cached sheets
-
-                // Generate new nodes and page info list
-                if (!newGeneratedSheets.isEmpty()) {
-                    PaperSize pz = options.getPaperSize();
-                    PageFormat pf = new PageFormat();
-                    PaperSize paperDef = options.getPaperSize();
-                    int globalPageIndex = 0;
-                    double currentXOffset = 0;
-
-                    logger.debug("Generating GraphicsNodes in-place for {} sheets...", newGeneratedSheets.size());
-                    start = System.nanoTime();
-                    for (int sheetIndex = 0; sheetIndex < newGeneratedSheets.size(); sheetIndex++) {
-                        PrintRecordSheet sheet = newGeneratedSheets.get(sheetIndex);
-                        if (sheet == null)
+                newPageInfos = planPages(newGeneratedSheets, options.getPaperSize());
+
+                // Pages whose nodes are built now are the ones near the view, so only those are updated. A
+                // single edit usually changes a few fields of a page, so the existing node is patched where
+                // possible and only built again if the page could not be patched.
+                List<SheetPageInfo> oldPages = new ArrayList<>(sheetPages);
+                if (oldPages.size() == newPageInfos.size()) {
+                    long start = System.nanoTime();
+                    int built = 0;
+                    for (int i = 0; i < newPageInfos.size(); i++) {
+                        if (generation != sheetGeneration.get()) {
+                            logger.debug("In-place update superseded by a newer edit");
+                            return; // Pages patched so far are patched again by the newer update
+                        }
+                        SheetPageInfo oldPageInfo = oldPages.get(i);
+                        if (oldPageInfo.graphicsNode == null) {
                             continue;
-
-                        if (sheet instanceof PrintSmallUnitSheet) {
-                            pf.setPaper(paperDef.createPaper());
-                        } else {
-                            pf.setPaper(paperDef.createPaper(DEFAULT_MARGINS, DEFAULT_MARGINS, DEFAULT_MARGINS, DEFAULT_MARGINS));
                         }
-
-                        int pageCount = sheet.getPageCount();
-                        for (int pageIndexInSheet = 0; pageIndexInSheet < pageCount; pageIndexInSheet++) {
-                            try {
-                                sheet.createDocument(pageIndexInSheet, pf, false);
-                                GraphicsNode node = sheet.build();
-                                if (node != null) {
-                                    double baseWidth = pz.pxWidth;
-                                    double baseHeight = pz.pxHeight;
-                                    SheetPageInfo pageInfo = new SheetPageInfo(node, sheetIndex, pageIndexInSheet,
-                                            globalPageIndex, baseWidth, baseHeight);
-                                    pageInfo.layoutPosition.setLocation(currentXOffset, 0);
-                                    newPageInfos.add(pageInfo);
-                                    currentXOffset += baseWidth + SPACE_BETWEEN_PAGES;
-                                    globalPageIndex++;
-                                } else {
-                                    logger.warn("Failed to build GraphicsNode (in-place) for sheet {}, page {}",
-                                            sheetIndex, pageIndexInSheet);
-                                }
-                            } catch (Exception e) {
-                                logger.error("Error generating GraphicsNode (in-place) for sheet " + sheetIndex
-                                        + ", page " + pageIndexInSheet, e);
+                        SheetPageInfo pageInfo = newPageInfos.get(i);
+                        try {
+                            if ((oldPageInfo.originalSheetIndex == pageInfo.originalSheetIndex)
+                                    && (oldPageInfo.pageIndexInSheet == pageInfo.pageIndexInSheet)
+                                    && patchPage(oldPageInfo, pageInfo.sheetEntry)) {
+                                patchedPages.add(i);
+                                continue;
+                            }
+                            PageNode node = buildPageNode(pageInfo, pageInfo.sheetEntry);
+                            if (node != null) {
+                                pageInfo.graphicsNode = node.node();
+                                pageInfo.document = node.document();
                             }
+                            built++;
+                        } catch (Exception e) {
+                            logger.error("Error generating GraphicsNode (in-place) for sheet "
+                                    + pageInfo.originalSheetIndex + ", page " + pageInfo.pageIndexInSheet, e);
                         }
                     }
-                    end = System.nanoTime();
-                    logger.debug("Finished generating {} GraphicsNodes in-place in {} ms", globalPageIndex,
-                            (end - start) / 1_000_000);
+                    long end = System.nanoTime();
+                    logger.debug("Patched {} and generated {} GraphicsNodes in-place in {} ms", patchedPages.size(),
+                            built, (end - start) / 1_000_000);
                 }
 
             } catch (Exception ex) {
@@ -1031,7 +1263,8 @@ public class RecordSheetPreviewPanel extends JPanel {
             final boolean finalStructureChanged = structureChanged || (sheetPages.size() != finalNewPageInfos.size());
 
             SwingUtilities.invokeLater(() -> {
-                if (scheduledAction.getIdx() >= ScheduledAction.UPDATE_SHEET_CONTENT.getIdx()) {
+                if ((generation != sheetGeneration.get())
+                        || (scheduledAction.getIdx() >= ScheduledAction.UPDATE_SHEET_CONTENT.getIdx())) {
                     logger.debug("New pending In-place or Regenerate detected, aborting in-place logic.");
                     return;
                 }
@@ -1050,15 +1283,13 @@ public class RecordSheetPreviewPanel extends JPanel {
                 }
 
                 synchronized (sheetPages) { // Ensure atomic update
-                    // Create a temporary list to hold pages that need rendering
-                    List<SheetPageInfo> pagesToReRender = new ArrayList<>();
-
                     for (int i = 0; i < sheetPages.size(); i++) {
                         SheetPageInfo oldPageInfo = sheetPages.get(i);
                         SheetPageInfo newPageInfo = finalNewPageInfos.get(i); // Assume 1:1 mapping based on index
 
                         // Sanity check indices (optional but good)
-                        if (oldPageInfo.globalPageIndex != newPageInfo.globalPageIndex) {
+                        if (oldPageInfo.originalSheetIndex != newPageInfo.originalSheetIndex
+                                || oldPageInfo.pageIndexInSheet != newPageInfo.pageIndexInSheet) {
                             logger.warn(
                                     "Page index mismatch during in-place update ({}/{} vs {}/{}). Falling back to reset.",
                                     oldPageInfo.originalSheetIndex, oldPageInfo.pageIndexInSheet,
@@ -1067,21 +1298,27 @@ public class RecordSheetPreviewPanel extends JPanel {
                             return; // Exit the lambda
                         }
 
+                        if (patchedPages.contains(i)) {
+                            // The node already shows the new data and its unchanged tiles are still valid
+                            oldPageInfo.sheetEntry = newPageInfo.sheetEntry;
+                            oldPageInfo.layoutPosition = newPageInfo.layoutPosition;
+                            continue;
+                        }
+
                         synchronized (oldPageInfo) {
                             oldPageInfo.cancelPendingRender(); // Cancel any old render for this page
-                            // Update the node BUT keep the old cached image and zoom level for now
+                            oldPageInfo.cancelPendingBuild();
+                            // Update the node BUT keep the old tiles as placeholders for now. Pages away from the
+                            // view get no node here; they are built from the new sheet when they are scrolled to.
+                            oldPageInfo.sheetEntry = newPageInfo.sheetEntry;
                             oldPageInfo.graphicsNode = newPageInfo.graphicsNode;
+                            oldPageInfo.document = newPageInfo.document;
+                            oldPageInfo.buildFailed = false;
                             oldPageInfo.layoutPosition = newPageInfo.layoutPosition; // Update layout too
-                            // Keep oldPageInfo.cachedImage
-                            // Keep oldPageInfo.imageRenderZoom
-                            pagesToReRender.add(oldPageInfo);
+                            oldPageInfo.contentVersion++; // Tiles of the old node no longer match exactly
                         }
                     }
 
-                    // Now request renders for all updated pages at the current zoom
-                    for (SheetPageInfo pageToRender : pagesToReRender) {
-                        requestRenderForPage(pageToRender, currentZoom);
-                    }
                 } // End synchronized block
 
                 // Restore view state
@@ -1089,6 +1326,8 @@ public class RecordSheetPreviewPanel extends JPanel {
                 this.panOffset.setLocation(currentPan.getX(), currentPan.getY());
                 this.isHighQualityPaint = true;
 
+                // Now request renders for all updated pages at the current zoom
+                requestRenderForAllPages();
                 // Repaint to show old images (scaled if needed) while new ones render
                 repaint();
             });
@@ -1179,157 +1418,214 @@ public class RecordSheetPreviewPanel extends JPanel {
     }
 
     /**
-     * Request background rendering for all pages if their cache is invalid
-     * for the current zoom factor.
+     * Request background rendering of the visible tiles of all pages that are not cached for the current zoom
+     * factor. Pages closest to the center of the view are requested first.
      */
     private synchronized void requestRenderForAllPages() {
         final double targetZoom = this.zoomFactor;
         isHighQualityPaint = true;
+        updateNodesNearView(targetZoom);
         List<SheetPageInfo> pagesToRender = new ArrayList<>(sheetPages); // Copy list for safe iteration
+        final double centerX = getWidth() / 2.0 - panOffset.getX();
+        pagesToRender.sort(Comparator.comparingDouble(pageInfo -> Math.abs(
+                (pageInfo.layoutPosition.x + pageInfo.baseWidthPx / 2.0) * targetZoom - centerX)));
         for (SheetPageInfo pageInfo : pagesToRender) {
-            if (!pageInfo.hasValidCacheForZoom(targetZoom)) {
-                requestRenderForPage(pageInfo, targetZoom);
+            if (pageInfo.graphicsNode == null) {
+                continue; // Rendered once its node is built
+            }
+            List<Point> tiles = getVisibleTiles(pageInfo, targetZoom);
+            if (!tiles.isEmpty() && !pageInfo.hasAllTiles(targetZoom, tiles)) {
+                requestRenderForPage(pageInfo, targetZoom, tiles);
             }
         }
     }
 
     /**
-     * Submits a rendering task for a specific page at a specific zoom level.
+     * Returns the tiles of a page that intersect the visible area of the panel at the given zoom, ordered by their
+     * distance from the center of the view.
+     *
+     * @return The columns (x) and rows (y) of the visible tiles
      */
-    private synchronized void requestRenderForPage(SheetPageInfo pageInfo, double targetZoom) {
+    private List<Point> getVisibleTiles(SheetPageInfo pageInfo, double zoom) {
+        List<Point> tiles = new ArrayList<>();
+        int renderWidth = (int) Math.ceil(pageInfo.baseWidthPx * zoom);
+        int renderHeight = (int) Math.ceil(pageInfo.baseHeightPx * zoom);
+        double pageX = Math.round(panOffset.getX() + pageInfo.layoutPosition.x * zoom);
+        double pageY = Math.round(panOffset.getY() + pageInfo.layoutPosition.y * zoom);
+        // Visible area in page image coordinates
+        double left = Math.max(0, -pageX);
+        double top = Math.max(0, -pageY);
+        double right = Math.min(renderWidth, getWidth() - pageX);
+        double bottom = Math.min(renderHeight, getHeight() - pageY);
+        if (right <= left || bottom <= top) {
+            return tiles;
+        }
+        final int tileSize = PreviewTileCache.TILE_SIZE;
+        for (int row = (int) (top / tileSize); row * tileSize < bottom; row++) {
+            for (int column = (int) (left / tileSize); column * tileSize < right; column++) {
+                tiles.add(new Point(column, row));
+            }
+        }
+        final double centerX = getWidth() / 2.0 - pageX;
+        final double centerY = getHeight() / 2.0 - pageY;
+        tiles.sort(Comparator.comparingDouble(tile -> Point2D.distanceSq(
+                (tile.x + 0.5) * tileSize, (tile.y + 0.5) * tileSize, centerX, centerY)));
+        return tiles;
+    }
+
+    /**
+     * Returns the transform that fits the node of a page into the page image at the given zoom. The node must not
+     * be painted or patched concurrently.
+     *
+     * @return The transform, or null if the node has no valid bounds
+     */
+    private @Nullable AffineTransform getPageTransform(SheetPageInfo pageInfo, GraphicsNode node, double zoom) {
+        final Rectangle2D bounds = node.getBounds();
+        if (bounds == null || bounds.isEmpty() || bounds.getWidth() <= 0 || bounds.getHeight() <= 0) {
+            return null;
+        }
+        int renderWidth = (int) Math.ceil(pageInfo.baseWidthPx * zoom);
+        int renderHeight = (int) Math.ceil(pageInfo.baseHeightPx * zoom);
+        double nodePadding = 5 * zoom;
+        double availableNodeWidth = Math.max(1, renderWidth - nodePadding * 2);
+        double availableNodeHeight = Math.max(1, renderHeight - nodePadding * 2);
+        double scaleX = availableNodeWidth / bounds.getWidth();
+        double scaleY = availableNodeHeight / bounds.getHeight();
+        double scale = Math.min(scaleX, scaleY);
+        double nodeX = (renderWidth - (bounds.getWidth() * scale)) / 2.0;
+        double nodeY = (renderHeight - (bounds.getHeight() * scale)) / 2.0;
+
+        AffineTransform workTransform = new AffineTransform();
+        workTransform.translate(nodeX, nodeY);
+        workTransform.scale(scale, scale);
+        workTransform.translate(-bounds.getX(), -bounds.getY());
+        return workTransform;
+    }
+
+    /**
+     * Submits a rendering task for tiles of a specific page at a specific zoom level. The tiles are rendered in the
+     * given order and added to the tile cache as they finish, so the page fills in while the task runs.
+     */
+    private synchronized void requestRenderForPage(SheetPageInfo pageInfo, double targetZoom, List<Point> tiles) {
         pageInfo.cancelPendingRender(); // Cancel previous render task for this page
 
         final int currentRenderVersion = pageInfo.renderVersion; // Capture version for this task
+        final int contentVersion = pageInfo.contentVersion;
+        final GraphicsNode node = pageInfo.graphicsNode;
+        final List<Point> tilesToRender = new ArrayList<>(tiles);
 
-        Callable<RenderResult> renderTask = () -> {
+        Callable<Integer> renderTask = () -> {
             // Background Thread
-            if (Thread.currentThread().isInterrupted())
-                return new RenderResult(null, targetZoom); 
-
-            GraphicsNode node = pageInfo.graphicsNode;
-            if (node == null)
-                return new RenderResult(null, targetZoom); 
-
+            if (node == null) {
+                return 0;
+            }
             int renderWidth = (int) Math.ceil(pageInfo.baseWidthPx * targetZoom);
             int renderHeight = (int) Math.ceil(pageInfo.baseHeightPx * targetZoom);
 
             if (renderWidth <= 0 || renderHeight <= 0) {
                 logger.warn("Invalid render dimensions for page {}: {}x{}", pageInfo.globalPageIndex, renderWidth,
                         renderHeight);
-                return new RenderResult(null, targetZoom); // Cannot render
+                return 0; // Cannot render
             }
 
-            BufferedImage img = null;
-            Graphics2D g = null;
-            AffineTransform originalTransform = null;
-            boolean success = false;
-            try {
-                img = createCompatibleImage(renderWidth, renderHeight);
-                if (img == null) {
-                    return new RenderResult(null, targetZoom); // Failed to create image, possible OOM
+            final int tileSize = PreviewTileCache.TILE_SIZE;
+            int rendered = 0;
+            for (Point tile : tilesToRender) {
+                if (Thread.currentThread().isInterrupted() || pageInfo.renderVersion != currentRenderVersion) {
+                    break; // Superseded; the tiles rendered so far are kept
                 }
-                g = GraphicsUtil.createGraphics(img);
-                setupRenderingHints(g, true, false, img);
-                g.setColor(Color.WHITE);
-                g.fillRect(0, 0, renderWidth, renderHeight);
-
-                originalTransform = node.getTransform(); // Save original
-
-                final Rectangle2D bounds = node.getBounds();
-                if (bounds == null || bounds.isEmpty() || bounds.getWidth() <= 0 || bounds.getHeight() <= 0) {
-                    logger.warn("Node bounds invalid for page {}", pageInfo.globalPageIndex);
-                    return new RenderResult(null, targetZoom); // Return blank image
+                PreviewTileCache.TileKey key = new PreviewTileCache.TileKey(pageInfo, contentVersion,
+                        PreviewTileCache.zoomKey(targetZoom), tile.x, tile.y);
+                if (tileCache.contains(key)) {
+                    continue;
                 }
-                double nodePadding = 5 * targetZoom;
-                double availableNodeWidth = Math.max(1, renderWidth - nodePadding * 2);
-                double availableNodeHeight = Math.max(1, renderHeight - nodePadding * 2);
-                double scaleX = availableNodeWidth / bounds.getWidth();
-                double scaleY = availableNodeHeight / bounds.getHeight();
-                double scale = Math.min(scaleX, scaleY);
-                double nodeX = (renderWidth - (bounds.getWidth() * scale)) / 2.0;
-                double nodeY = (renderHeight - (bounds.getHeight() * scale)) / 2.0;
-
-                AffineTransform workTransform = new AffineTransform();
-                workTransform.translate(nodeX, nodeY);
-                workTransform.scale(scale, scale);
-                workTransform.translate(-bounds.getX(), -bounds.getY());
-                node.setTransform(workTransform);
-
-                node.paint(g); // Render the node
-                success = true; // Mark as successful render
-            } catch (OutOfMemoryError oom) {
-                logger.error("OOM rendering page {} at zoom {}", pageInfo.globalPageIndex, targetZoom, oom);
-                img = null; // Discard partial image
-            } catch (Exception ex) {
-                logger.error("Error rendering page {}", pageInfo.globalPageIndex, ex);
-                img = null; // Discard on error
-            } finally {
-                if (g != null)
-                    g.dispose();
-                // Restore original transform
-                if (node != null && originalTransform != null) {
-                    try {
-                        node.setTransform(originalTransform);
-                    } catch (Exception e) {
-                        logger.error("Failed to restore transform for page {}", pageInfo.globalPageIndex, e);
+                int tileWidth = Math.min(tileSize, renderWidth - tile.x * tileSize);
+                int tileHeight = Math.min(tileSize, renderHeight - tile.y * tileSize);
+                if (tileWidth <= 0 || tileHeight <= 0) {
+                    continue;
+                }
+                BufferedImage img = createCompatibleImage(tileWidth, tileHeight);
+                if (img == null) {
+                    break; // Failed to create image, possible OOM
+                }
+                Graphics2D g = null;
+                try {
+                    g = GraphicsUtil.createGraphics(img);
+                    setupRenderingHints(g, true, false, img);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, tileWidth, tileHeight);
+                    g.translate(-tile.x * tileSize, -tile.y * tileSize);
+                    g.clipRect(tile.x * tileSize, tile.y * tileSize, tileWidth, tileHeight);
+                    // The node is shared by all tiles of the page, so only one tile is painted from it at a time.
+                    // The page may also be patched in between tiles, so the tile is only kept if it wasn't.
+                    synchronized (node) {
+                        if (pageInfo.renderVersion != currentRenderVersion) {
+                            break;
+                        }
+                        AffineTransform workTransform = getPageTransform(pageInfo, node, targetZoom);
+                        if (workTransform == null) {
+                            logger.warn("Node bounds invalid for page {}", pageInfo.globalPageIndex);
+                            break;
+                        }
+                        AffineTransform originalTransform = node.getTransform();
+                        try {
+                            node.setTransform(workTransform);
+                            node.paint(g);
+                        } finally {
+                            node.setTransform(originalTransform);
+                        }
+                        tileCache.put(key, new PreviewTileCache.Tile(img, targetZoom));
+                    }
+                } catch (OutOfMemoryError oom) {
+                    logger.error("OOM rendering page {} at zoom {}", pageInfo.globalPageIndex, targetZoom, oom);
+                    break;
+                } catch (Exception ex) {
+                    logger.error("Error rendering page {}", pageInfo.globalPageIndex, ex);
+                    break;
+                } finally {
+                    if (g != null) {
+                        g.dispose();
                     }
                 }
+                rendered++;
+                repaint(); // Show each tile as soon as it is ready
             }
-            return new RenderResult(success ? img : null, targetZoom); // Return rendered image (or null on error)
+            return rendered;
         };
 
-        final CompletableFuture<RenderResult> completableRenderFuture = CompletableFuture.supplyAsync(() -> {
+        final CompletableFuture<Integer> completableRenderFuture = CompletableFuture.supplyAsync(() -> {
             try {
                 // Check interruption status again just before execution
                 if (Thread.currentThread().isInterrupted()) {
-                    return new RenderResult(null, targetZoom);
+                    return 0;
                 }
                 return renderTask.call(); // Execute the Callable
             } catch (InterruptedException e) {
                 // This handles interruption during renderTask.call() execution
                 Thread.currentThread().interrupt(); // Restore interrupt status
-                return new RenderResult(null, targetZoom);
+                return 0;
             } catch (Exception e) {
                 logger.error("Exception during renderTask.call(), wrapping in CompletionException", e);
                 throw new CompletionException(e);
             }
-        }, renderExecutor);
+        }, renderScheduler.executor(renderPriority()));
 
         pageInfo.pendingRenderTask = completableRenderFuture;
 
         // Process the result asynchronously on the EDT
-        completableRenderFuture.thenAcceptAsync(result -> {
+        completableRenderFuture.thenAcceptAsync(rendered -> {
             // ---- EDT Thread ----
             synchronized (pageInfo) { // Synchronize access to pageInfo state
-                boolean isCancelled = completableRenderFuture.isDone() && completableRenderFuture.isCancelled(); // Check cancellation status
-
-                // Check if this result is still valid (correct version AND this task hasn't been cancelled/replaced)
-                if (pageInfo.renderVersion == currentRenderVersion && pageInfo.pendingRenderTask == completableRenderFuture && !isCancelled) {
-
-                    if (result != null && result.image != null) {
-                        // SUCCESS: Use image and the zoom FROM THE RESULT
-                        pageInfo.cachedImage = new SoftReference<>(result.image);
-                        pageInfo.imageRenderZoom = result.zoomFactor;
-                    } else {
-                        // Render failed, was interrupted, or produced null image
-                        pageInfo.cachedImage = new SoftReference<>(null);
-                        pageInfo.imageRenderZoom = -1.0; // Mark as invalid
-                    }
-                    // Mark task as completed ONLY IF IT IS STILL THE CURRENT TASK reference
-                    if (pageInfo.pendingRenderTask == completableRenderFuture) {
-                        pageInfo.pendingRenderTask = null;
-                    }
-                    repaint(); // Repaint the panel to show the new image or clear old one
+                // Mark task as completed ONLY IF IT IS STILL THE CURRENT TASK reference
+                if (pageInfo.renderVersion == currentRenderVersion
+                        && pageInfo.pendingRenderTask == completableRenderFuture) {
+                    pageInfo.pendingRenderTask = null;
+                    repaint(); // Repaint the panel to replace the remaining placeholders
                     updateScrollbars();
-                } else {
-                    // Discarding stale/cancelled result
-                    if (result != null && result.image != null) {
-                        result.image.flush();
-                    }
+                } else if (completableRenderFuture.isCancelled()
+                        && pageInfo.pendingRenderTask == completableRenderFuture) {
                     // Clear if a cancelled task somehow lingered as pending
-                    if (isCancelled && pageInfo.pendingRenderTask == completableRenderFuture) {
-                        pageInfo.pendingRenderTask = null;
-                    }
+                    pageInfo.pendingRenderTask = null;
                 }
             }
         }, SwingUtilities::invokeLater) // Ensure execution on EDT
@@ -1350,8 +1646,6 @@ public class RecordSheetPreviewPanel extends JPanel {
             synchronized (pageInfo) {
                 if (pageInfo.renderVersion == currentRenderVersion && pageInfo.pendingRenderTask == completableRenderFuture) {
                     pageInfo.pendingRenderTask = null;
-                    pageInfo.cachedImage = new SoftReference<>(null);
-                    pageInfo.imageRenderZoom = -1.0;
                     repaint(); // Repaint to show placeholder
                     updateScrollbars();
                 }
@@ -1431,7 +1725,7 @@ public class RecordSheetPreviewPanel extends JPanel {
                 g2d.setColor(getForeground()); // Use panel foreground color
                 setupRenderingHints(g2d, true, false, null);
                 String message;
-                if (!currentEntities.isEmpty() && sheetGenerationLock.isLocked()) {
+                if (!currentEntities.isEmpty() && generatingSheets) {
                     message = "Generating Sheets...";
                 } else if (currentEntities.isEmpty()) {
                     message = "No Unit Selected";
@@ -1451,12 +1745,9 @@ public class RecordSheetPreviewPanel extends JPanel {
 
             // Draw each page
             for (SheetPageInfo pageInfo : pagesToDraw) {
-                BufferedImage pageImage = (pageInfo.cachedImage != null) ? pageInfo.cachedImage.get() : null;
-                final double cachedZoom = pageInfo.imageRenderZoom;
-
                 // Calculate position and size on screen
-                double targetDrawX = panOffset.getX() + pageInfo.layoutPosition.x * currentZoom;
-                double targetDrawY = panOffset.getY() + pageInfo.layoutPosition.y * currentZoom;
+                double targetDrawX = currentPan.getX() + pageInfo.layoutPosition.x * currentZoom;
+                double targetDrawY = currentPan.getY() + pageInfo.layoutPosition.y * currentZoom;
                 double targetDrawWidth = pageInfo.baseWidthPx * currentZoom;
                 double targetDrawHeight = pageInfo.baseHeightPx * currentZoom;
 
@@ -1471,31 +1762,36 @@ public class RecordSheetPreviewPanel extends JPanel {
                     continue; // Skip drawing if page is entirely off-screen (creates issues)
                 }
 
-                if (pageImage != null && cachedZoom > 0 && targetW > 0 && targetH > 0 && pageImage.getWidth() > 0 && pageImage.getHeight() > 0) {
-                    // We have a cached image
-                    boolean zoomsMatch = Math.abs(currentZoom - cachedZoom) < 0.005; // Allow small tolerance for zoom match
-                    
-                    if (zoomsMatch && highQuality) {
-                        setupRenderingHints(g2d, true, false, null);
-                        int drawPosX = (int) Math.round(currentPan.getX() + pageInfo.layoutPosition.x * cachedZoom);
-                        int drawPosY = (int) Math.round(currentPan.getY() + pageInfo.layoutPosition.y * cachedZoom);
-                        // Draw image at its native size at the calculated position
-                        g2d.drawImage(pageImage, drawPosX, drawPosY, null);
+                // Tiles rendered at the current zoom are drawn at their native size
+                List<PreviewTileCache.Tile> sharpTiles = new ArrayList<>();
+                List<Point> sharpPositions = new ArrayList<>();
+                boolean complete = true;
+                for (Point tile : getVisibleTiles(pageInfo, currentZoom)) {
+                    PreviewTileCache.Tile cached = tileCache.get(pageInfo.tileKey(currentZoom, tile));
+                    if (cached != null) {
+                        sharpTiles.add(cached);
+                        sharpPositions.add(tile);
                     } else {
-                        setupRenderingHints(g2d, false, false, null);
-                        g2d.drawImage(pageImage,
-                            targetX, targetY, targetX + targetW, targetY + targetH,     // Destination rect (target area)
-                            0, 0, pageImage.getWidth(), pageImage.getHeight(),  // Source rect (full cached image)
-                            null);
+                        complete = false;
                     }
-                } else {
-                    // No cached image available, draw placeholder
+                }
+
+                boolean drewFallback = false;
+                if (!complete) {
+                    drewFallback = drawFallbackTiles(g2d, pageInfo, currentZoom, targetX, targetY, targetBoundsInt,
+                            highQuality);
+                }
+
+                if (!complete && !drewFallback) {
+                    // Missing tiles have nothing to stand in for them, draw placeholder
                     g2d.setColor(Color.LIGHT_GRAY);
                     g2d.fillRect(targetX, targetY, targetW, targetH);
+                }
+                if (sharpTiles.isEmpty() && !drewFallback) {
                     g2d.setColor(Color.DARK_GRAY);
                     g2d.drawRect(targetX, targetY, targetW - 1, targetH - 1);
 
-                    if (pageInfo.isRenderTaskActive()) {
+                    if (pageInfo.isRenderTaskActive() || pageInfo.isBuildTaskActive()) {
                         g2d.setColor(Color.BLACK);
                         setupRenderingHints(g2d, true, false, null);
                         String msg = "Rendering...";
@@ -1511,12 +1807,16 @@ public class RecordSheetPreviewPanel extends JPanel {
                         g2d.drawString(msg, (int) Math.round(targetX + (targetW - sw) / 2),
                                 (int) Math.round(targetY + targetH / 2));
                     }
+                    continue;
                 }
-            } // End loop over pages
 
-            if (currentEntities.size() > MAX_PREVIEW_ENTITIES) {
-                drawPreviewLimitationNotice(g2d);
-            }
+                setupRenderingHints(g2d, true, false, null);
+                for (int i = 0; i < sharpTiles.size(); i++) {
+                    Point tile = sharpPositions.get(i);
+                    g2d.drawImage(sharpTiles.get(i).image(), targetX + tile.x * PreviewTileCache.TILE_SIZE,
+                            targetY + tile.y * PreviewTileCache.TILE_SIZE, null);
+                }
+            } // End loop over pages
 
             // Fill scrollbars little square in bottom-right
             if (vScrollBar.isVisible() && hScrollBar.isVisible()) {
@@ -1533,45 +1833,59 @@ public class RecordSheetPreviewPanel extends JPanel {
         }
     }
 
-    private void drawPreviewLimitationNotice(Graphics2D g2d) {
-        setupRenderingHints(g2d, true, false, null);
-        String msg = "Preview limited to " + MAX_PREVIEW_ENTITIES + " units of " + currentEntities.size();
-        
-        // Bold Font and Calculate text dimensions
-        java.awt.Font originalFont = g2d.getFont();
-        java.awt.Font boldFont = originalFont.deriveFont(java.awt.Font.BOLD);
-        g2d.setFont(boldFont);
-        java.awt.FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(msg);
-        int textHeight = fm.getHeight();
-        int textAscent = fm.getAscent();
-        
-        // Calculate position for bottom right alignment with 10px margin
-        int scrollBarWidth = vScrollBar.isVisible() ? vScrollBar.getPreferredSize().width : 0;
-        int scrollBarHeight = hScrollBar.isVisible() ? hScrollBar.getPreferredSize().height : 0;
-        
-        int margin = 10;
-        int textX = getWidth() - textWidth - margin - scrollBarWidth;
-        int textY = getHeight() - margin - scrollBarHeight;
-        
-        // Draw semi-transparent background rectangle
-        int bgPadding = 4;
-        int bgX = textX - bgPadding;
-        int bgY = textY - textHeight - bgPadding;
-        int bgWidth = textWidth + (bgPadding * 2);
-        int bgHeight = textHeight + (bgPadding * 2);
-        
-        // Background with transparency
-        g2d.setColor(new Color(255, 255, 255, 200)); // Semi-transparent white
-        g2d.fillRoundRect(bgX, bgY, bgWidth, bgHeight, 6, 6);
-        
-        // Border
-        g2d.setColor(new Color(128, 128, 128, 200)); // Semi-transparent gray
-        g2d.drawRoundRect(bgX, bgY, bgWidth, bgHeight, 6, 6);
-        
-        // Draw the text
-        g2d.setColor(Color.BLACK);
-        g2d.drawString(msg, textX, textY - textHeight + textAscent);
+    /**
+     * Draws the cached tiles of a page that were rendered at other zoom levels or from an older version of the
+     * page, scaled to the current zoom, as placeholders for the tiles that are still being rendered. Tiles closest
+     * to the current zoom and content are drawn last, so they cover the blurrier ones.
+     *
+     * @return true if any tile was drawn
+     */
+    private boolean drawFallbackTiles(Graphics2D g2d, SheetPageInfo pageInfo, double currentZoom, int pageX,
+            int pageY, Rectangle pageBounds, boolean highQuality) {
+        final long currentZoomKey = PreviewTileCache.zoomKey(currentZoom);
+        final int contentVersion = pageInfo.contentVersion;
+        List<Map.Entry<PreviewTileCache.TileKey, PreviewTileCache.Tile>> fallbacks = new ArrayList<>();
+        for (Map.Entry<PreviewTileCache.TileKey, PreviewTileCache.Tile> entry : tileCache.tilesOf(pageInfo)) {
+            PreviewTileCache.TileKey key = entry.getKey();
+            if (key.zoomKey() != currentZoomKey || key.contentVersion() != contentVersion) {
+                fallbacks.add(entry);
+            }
+        }
+        if (fallbacks.isEmpty()) {
+            return false;
+        }
+        // Worst placeholders first: other content versions, then by how far the zoom is from the current one
+        fallbacks.sort(Comparator.comparingDouble(entry -> -placeholderDistance(entry, contentVersion, currentZoom)));
+
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(pageBounds.x, pageBounds.y, pageBounds.width, pageBounds.height);
+        setupRenderingHints(g2d, false, false, null);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                highQuality ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                        : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        Rectangle clip = g2d.getClipBounds();
+        boolean drewAny = false;
+        for (Map.Entry<PreviewTileCache.TileKey, PreviewTileCache.Tile> entry : fallbacks) {
+            PreviewTileCache.TileKey key = entry.getKey();
+            BufferedImage image = entry.getValue().image();
+            double ratio = currentZoom / entry.getValue().zoom();
+            int x0 = pageX + (int) Math.floor(key.column() * PreviewTileCache.TILE_SIZE * ratio);
+            int y0 = pageY + (int) Math.floor(key.row() * PreviewTileCache.TILE_SIZE * ratio);
+            int x1 = pageX + (int) Math.ceil((key.column() * PreviewTileCache.TILE_SIZE + image.getWidth()) * ratio);
+            int y1 = pageY + (int) Math.ceil((key.row() * PreviewTileCache.TILE_SIZE + image.getHeight()) * ratio);
+            if (clip != null && !clip.intersects(x0, y0, x1 - x0, y1 - y0)) {
+                continue;
+            }
+            g2d.drawImage(image, x0, y0, x1, y1, 0, 0, image.getWidth(), image.getHeight(), null);
+            drewAny = true;
+        }
+        return drewAny;
+    }
+
+    private static double placeholderDistance(Map.Entry<PreviewTileCache.TileKey, PreviewTileCache.Tile> entry,
+            int contentVersion, double currentZoom) {
+        double zoomDistance = Math.abs(Math.log(entry.getValue().zoom() / currentZoom));
+        return (entry.getKey().contentVersion() == contentVersion) ? zoomDistance : zoomDistance + 1000.0;
     }
 
     @Override
@@ -1623,8 +1937,15 @@ public class RecordSheetPreviewPanel extends JPanel {
      * Copies the current record sheet to the system clipboard as an image.
      */
     private void copyRecordSheetToClipboard() {
-        // Use the already generated GraphicsNodes from sheetPages
-        List<SheetPageInfo> pagesToCopy = new ArrayList<>(sheetPages);
+        // Copy the pages starting at the view, using the already generated GraphicsNodes where possible
+        List<SheetPageInfo> allPages = new ArrayList<>(sheetPages);
+        int firstPage = 0;
+        while (firstPage < allPages.size() - 1 && panOffset.getX()
+                + (allPages.get(firstPage).layoutPosition.x + allPages.get(firstPage).baseWidthPx) * zoomFactor <= 0) {
+            firstPage++;
+        }
+        List<SheetPageInfo> pagesToCopy = allPages.subList(firstPage,
+                Math.min(allPages.size(), firstPage + MAX_CLIPBOARD_PAGES));
 
         if (pagesToCopy.isEmpty()) {
             logger.warn("No pages available to copy to clipboard.");
@@ -1654,13 +1975,15 @@ public class RecordSheetPreviewPanel extends JPanel {
             int k = 0;
             for (SheetPageInfo pageInfo : pagesToCopy) {
                 GraphicsNode gn = pageInfo.graphicsNode;
-                if (gn == null)
-                    continue;
-
-                AffineTransform originalTransform = null;
                 try {
-                    originalTransform = gn.getTransform(); // Save original
-
+                    if (gn == null) {
+                        // Pages away from the view have no node, build one just for the copy
+                        PageNode built = buildPageNode(pageInfo, pageInfo.sheetEntry);
+                        if (built == null) {
+                            continue;
+                        }
+                        gn = built.node();
+                    }
                     Rectangle2D bounds = gn.getBounds();
                     if (bounds == null || bounds.getWidth() <= 0 || bounds.getHeight() <= 0) {
                         logger.warn("Skipping page {} for clipboard due to invalid node bounds.",
@@ -1690,21 +2013,18 @@ public class RecordSheetPreviewPanel extends JPanel {
                     paintTransform.scale(scale, scale);
                     paintTransform.translate(-bounds.getX(), -bounds.getY());
 
-                    gn.setTransform(paintTransform);
-                    gn.paint(g); // Render this node onto the big image
-                    k++;
-                } catch (Exception ex) {
-                    logger.error("Error painting node for page {} to clipboard", pageInfo.globalPageIndex, ex);
-                } finally {
-                    // Restore original transform
-                    if (gn != null && originalTransform != null) {
+                    synchronized (gn) { // Tiles of this page may be rendering in the background
+                        AffineTransform originalTransform = gn.getTransform(); // Save original
                         try {
-                            gn.setTransform(originalTransform);
-                        } catch (Exception e) {
-                            logger.error("Failed to restore transform for page {} after clipboard render",
-                                    pageInfo.globalPageIndex, e);
+                            gn.setTransform(paintTransform);
+                            gn.paint(g); // Render this node onto the big image
+                        } finally {
+                            gn.setTransform(originalTransform); // Restore original transform
                         }
                     }
+                    k++;
+                } catch (Exception ex) {
+                    logger.error("Error painting node for page {} to clipboard", pageInfo.globalPageIndex, ex);
                 }
             }
 
@@ -1758,11 +2078,8 @@ public class RecordSheetPreviewPanel extends JPanel {
         List<SheetPageInfo> pagesToClean = new ArrayList<>(sheetPages); // Copy for safe iteration/modification
         sheetPages.clear();
         for (SheetPageInfo pageInfo : pagesToClean) {
-            pageInfo.cancelPendingRender();
-            if (pageInfo.cachedImage != null) {
-                pageInfo.cachedImage.clear();
-                pageInfo.cachedImage = null;
-            }
+            pageInfo.releaseNode();
+            tileCache.removePage(pageInfo);
         }
     }
 
@@ -1777,6 +2094,8 @@ public class RecordSheetPreviewPanel extends JPanel {
         if (updateTimer != null && updateTimer.isRunning())
             updateTimer.stop();
 
+        sheetGeneration.incrementAndGet(); // Stop any sheet generation
+        generatingSheets = false;
         cleanupPageTasksAndData();
         generatedSheets = null;
     }
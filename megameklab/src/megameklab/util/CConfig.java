@@ -110,6 +110,7 @@ public final class CConfig {
     public static final String RS_ROW_SHADING = "rs_row_shading";
     public static final String RS_FONT = "rs_font";
     public static final String RS_PROGRESS_BAR = "rs_progress_bar";
+    public static final String RS_PRINT_VIA_PDF = "rs_print_via_pdf";
     public static final String RS_SHOW_QUIRKS = "rs_show_quirks";
     public static final String RS_SHOW_C3BV = "rs_show_c3bv";
     public static final String RS_SHOW_PILOT_DATA = "rs_show_pilot_data";
@@ -128,6 +129,12 @@ public final class CConfig {
     public static final String RS_DAMAGE = "rs_damage";
     public static final String RS_DAMAGE_COLOR = "rs_damage_color";
     public static final String RS_WEAPONS_ORDER = "rs_weapons_order";
+    public static final String RS_TEMPLATE_CACHE_MB = "rs_template_cache_mb";
+    public static final String RS_EXPORT_MEMORY_MB = "rs_export_memory_mb";
+    public static final String RS_EXPORT_THREADS = "rs_export_threads";
+    public static final String RS_IMAGE_CACHE_MB = "rs_image_cache_mb";
+    public static final String RS_IMAGE_DPI = "rs_image_dpi";
+    public static final String RS_PREVIEW_CACHE_MB = "rs_preview_cache_mb";
 
     public static final String NAG_EQUIPMENT_CTRLCLICK = "nag_equipment_ctrlclick";
     public static final String NAG_IMPORT_SETTINGS = "nag_import_settings";
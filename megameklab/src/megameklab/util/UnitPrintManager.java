@@ -37,6 +37,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Vector;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import static megamek.common.options.OptionsConstants.RPG_MANEI_DOMINI;
@@ -134,9 +135,20 @@ public class UnitPrintManager {
         return createSheets(entities, singlePrint, options, false);
     }
 
+    /**
+     * Plans the record sheets for a list of units. Page numbers are assigned up front, but each sheet is only
+     * created, and its units copied and prepared for printing, when the sheet is first accessed. DropShip sheets
+     * are the exception: they are created right away, since their page count depends on their inventory.
+     *
+     * @param entities                The units to print, optionally with page breaks
+     * @param singlePrint             Whether to limit each record sheet to a single unit
+     * @param options                 The options for the sheets
+     * @param noWarningsOnUnprintable Whether to skip the message about units that cannot be printed
+     * @return A {@link LazySheetList} with the sheets
+     */
     public static List<PrintRecordSheet> createSheets(List<? extends BTObject> entities, boolean singlePrint,
             RecordSheetOptions options, boolean noWarningsOnUnprintable) {
-        List<PrintRecordSheet> sheets = new ArrayList<>();
+        LazySheetList sheets = new LazySheetList();
         List<Infantry> infList = new ArrayList<>();
         List<BattleArmor> baList = new ArrayList<>();
         List<ProtoMek> protoList = new ArrayList<>();
@@ -146,64 +158,51 @@ public class UnitPrintManager {
 
         int pageCount = 0;
         for (BTObject object : entities) {
-            if (object instanceof Entity entity) {
-                Entity unit;
-                // assign base unit and override only if damage should be hidden and entity is damaged
-                if (!options.showDamage() && UnitUtil.isDamaged(entity, options.showPilotData())) {
-                    unit = UnitUtil.cloneUnit(entity);
-                    UnitUtil.resetUnit(unit);
-                } else {
-                    unit = entity;
-                }
-                if (unit instanceof Mek) {
-                    UnitUtil.removeOneShotAmmo(unit);
-                    MekUtil.expandUnitMounts((Mek) unit);
-                    sheets.add(new PrintMek((Mek) unit, pageCount++, options));
-                } else if ((unit instanceof Tank) && unit.getMovementMode().isMarine()) {
-                    sheets.add(new PrintTank((Tank) unit, pageCount++, options));
-                } else if (unit instanceof Tank) {
+            if (object instanceof Entity unit) {
+                if (unit instanceof Mek mek) {
+                    addLazy(sheets, pageCount++, p -> new PrintMek((Mek) prepareUnit(mek, options), p, options));
+                } else if ((unit instanceof Tank tank) && unit.getMovementMode().isMarine()) {
+                    addLazy(sheets, pageCount++, p -> new PrintTank((Tank) prepareUnit(tank, options), p, options));
+                } else if (unit instanceof Tank tank) {
                     if (singlePrint || options.showReferenceCharts()) {
-                        sheets.add(new PrintCompositeTankSheet((Tank) unit, null, pageCount++, options));
+                        addLazy(sheets, pageCount++, p -> new PrintCompositeTankSheet(
+                                (Tank) prepareUnit(tank, options), null, p, options));
                     } else if (null != tank1) {
-                        sheets.add(new PrintCompositeTankSheet(tank1, (Tank) unit, pageCount++, options));
+                        final Tank first = tank1;
+                        addLazy(sheets, pageCount++, p -> new PrintCompositeTankSheet(
+                                (Tank) prepareUnit(first, options), (Tank) prepareUnit(tank, options), p, options));
                         tank1 = null;
                     } else {
-                        tank1 = (Tank) unit;
+                        tank1 = tank;
                     }
                 } else if (unit.hasETypeFlag(Entity.ETYPE_AERO)) {
-                    if (unit instanceof Jumpship) {
-                        PrintCapitalShip pcs = new PrintCapitalShip((Jumpship) unit, pageCount, options);
-                        pageCount += pcs.getPageCount();
-                        sheets.add(pcs);
+                    if (unit instanceof Jumpship ship) {
+                        addLazy(sheets, pageCount++, p -> new PrintCapitalShip(
+                                (Jumpship) prepareUnit(ship, options), p, options));
                     } else if (unit instanceof Dropship) {
-                        PrintDropship pds = new PrintDropship((Aero) unit, pageCount, options);
+                        PrintDropship pds = new PrintDropship((Aero) prepareUnit(unit, options), pageCount, options);
                         pageCount += pds.getPageCount();
                         sheets.add(pds);
                     } else {
-                        sheets.add(new PrintAero((Aero) unit, pageCount++, options));
+                        addLazy(sheets, pageCount++, p -> new PrintAero((Aero) prepareUnit(unit, options), p,
+                                options));
                     }
                 } else if (unit instanceof BattleArmor) {
                     baList.add((BattleArmor) unit);
                     if (singlePrint || PrintSmallUnitSheet.fillsSheet(baList, options)) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(baList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, baList, pageCount++, options);
                         baList = new ArrayList<>();
                     }
                 } else if (unit instanceof Infantry) {
                     infList.add((Infantry) unit);
                     if (singlePrint || PrintSmallUnitSheet.fillsSheet(infList, options)) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(infList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, infList, pageCount++, options);
                         infList = new ArrayList<>();
                     }
                 } else if (unit instanceof ProtoMek) {
                     protoList.add((ProtoMek) unit);
                     if (singlePrint || PrintSmallUnitSheet.fillsSheet(protoList, options)) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(protoList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, protoList, pageCount++, options);
                         protoList = new ArrayList<>();
                     }
                 } else if (unit instanceof HandheldWeapon) {
@@ -211,17 +210,13 @@ public class UnitPrintManager {
                         final PrintHandheldWeapon phw = new PrintHandheldWeapon((HandheldWeapon) unit, pageCount, options);
                         final int reservedSpace = phw.isLargeLayout() ? 1 : 0;
                         if (reservedSpace > 0 && PrintSmallUnitSheet.fillsSheet(hhwList, options, reservedSpace)) {
-                            PrintRecordSheet prs = new PrintSmallUnitSheet(hhwList, pageCount, options);
-                            pageCount += prs.getPageCount();
-                            sheets.add(prs);
+                            addSmallUnitSheet(sheets, hhwList, pageCount++, options);
                             hhwList = new ArrayList<>();
                         }
                     } 
                     hhwList.add((HandheldWeapon) unit);
                     if (singlePrint || PrintSmallUnitSheet.fillsSheet(hhwList, options)) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(hhwList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, hhwList, pageCount++, options);
                         hhwList = new ArrayList<>();
                     }
                 } else {
@@ -230,31 +225,25 @@ public class UnitPrintManager {
             } else if (object instanceof PageBreak) {
                 if (!singlePrint) {
                     if (!baList.isEmpty()) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(baList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, baList, pageCount++, options);
                         baList = new ArrayList<>();
                     }
                     if (!infList.isEmpty()) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(infList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, infList, pageCount++, options);
                         infList = new ArrayList<>();
                     }
                     if (!protoList.isEmpty()) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(protoList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, protoList, pageCount++, options);
                         protoList = new ArrayList<>();
                     }
                     if (!hhwList.isEmpty()) {
-                        PrintRecordSheet prs = new PrintSmallUnitSheet(hhwList, pageCount, options);
-                        pageCount += prs.getPageCount();
-                        sheets.add(prs);
+                        addSmallUnitSheet(sheets, hhwList, pageCount++, options);
                         hhwList = new ArrayList<>();
                     }
                     if (null != tank1) {
-                        sheets.add(new PrintCompositeTankSheet(tank1, null, pageCount++, options));
+                        final Tank first = tank1;
+                        addLazy(sheets, pageCount++, p -> new PrintCompositeTankSheet(
+                                (Tank) prepareUnit(first, options), null, p, options));
                         tank1 = null;
                     }
                 }
@@ -272,26 +261,68 @@ public class UnitPrintManager {
         }
 
         if (null != tank1) {
-            sheets.add(new PrintCompositeTankSheet(tank1, null, pageCount++, options));
+            final Tank first = tank1;
+            addLazy(sheets, pageCount++, p -> new PrintCompositeTankSheet(
+                    (Tank) prepareUnit(first, options), null, p, options));
         }
 
         if (!baList.isEmpty()) {
-            sheets.add(new PrintSmallUnitSheet(baList, pageCount++, options));
+            addSmallUnitSheet(sheets, baList, pageCount++, options);
         }
 
         if (!infList.isEmpty()) {
-            sheets.add(new PrintSmallUnitSheet(infList, pageCount++, options));
+            addSmallUnitSheet(sheets, infList, pageCount++, options);
         }
 
         if (!protoList.isEmpty()) {
-            sheets.add(new PrintSmallUnitSheet(protoList, pageCount, options));
+            addSmallUnitSheet(sheets, protoList, pageCount, options);
         }
         if (!hhwList.isEmpty()) {
-            sheets.add(new PrintSmallUnitSheet(hhwList, pageCount, options));
+            addSmallUnitSheet(sheets, hhwList, pageCount, options);
         }
         return sheets;
     }
 
+    /**
+     * Adds a single page sheet that is created when it is first accessed.
+     */
+    private static void addLazy(LazySheetList sheets, int firstPage, IntFunction<PrintRecordSheet> factory) {
+        sheets.addLazy(firstPage, 1, () -> factory.apply(firstPage));
+    }
+
+    private static void addSmallUnitSheet(LazySheetList sheets, List<? extends Entity> units, int firstPage,
+            RecordSheetOptions options) {
+        addLazy(sheets, firstPage, p -> new PrintSmallUnitSheet(
+                units.stream().map(unit -> prepareUnit(unit, options)).toList(), p, options));
+    }
+
+    /**
+     * Prepares a unit for printing. If damage is not shown and the unit is damaged, a repaired copy is printed
+     * instead of the unit. One-shot ammo is removed from Meks and their mounts are expanded.
+     *
+     * @param entity  The unit
+     * @param options The record sheet options
+     * @return The unit to print
+     */
+    private static Entity prepareUnit(Entity entity, RecordSheetOptions options) {
+        // Sheets may be created on rendering threads, and the same unit can appear on more than one sheet
+        synchronized (entity) {
+            Entity unit;
+            // assign base unit and override only if damage should be hidden and entity is damaged
+            if (!options.showDamage() && UnitUtil.isDamaged(entity, options.showPilotData())) {
+                unit = UnitUtil.cloneUnit(entity);
+                UnitUtil.resetUnit(unit);
+            } else {
+                unit = entity;
+            }
+            if (unit instanceof Mek mek) {
+                UnitUtil.removeOneShotAmmo(mek);
+                MekUtil.expandUnitMounts(mek);
+            }
+            return unit;
+        }
+    }
+
     public static void exportUnits(List<? extends BTObject> units, File exportFile, boolean singlePrint) {
         exportUnits(units, exportFile, singlePrint, new RecordSheetOptions());
     }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import megamek.common.BTObject;
+import megamek.common.Entity;
+import megamek.common.annotations.Nullable;
+import megamek.logging.MMLogger;
+
+/**
+ * The serialized state of a list of units at one point in time. It is taken on the thread that edits the units,
+ * and any other thread can restore its own copies of the units from it while the originals continue to change.
+ * Unlike {@link UnitMemento}, which keeps the unit file, the snapshot keeps the complete state of the units,
+ * including crews and damage, as {@link UnitUtil#cloneUnit} does. Each unit is serialized on its own, so the
+ * copies of different units share no objects.
+ */
+public final class UnitSnapshot {
+    private static final MMLogger logger = MMLogger.create(UnitSnapshot.class);
+
+    private final List<BTObject> objects;
+    private final List<byte[]> data;
+
+    /**
+     * Serializes the units of a list. Objects that are not units, such as page breaks, are kept as they are.
+     *
+     * @param objects The units and other objects
+     */
+    public UnitSnapshot(List<? extends BTObject> objects) {
+        this.objects = new ArrayList<>(objects);
+        List<byte[]> serialized = new ArrayList<>(objects.size());
+        try {
+            for (BTObject object : objects) {
+                serialized.add((object instanceof Entity entity) ? UnitUtil.serializeUnit(entity) : null);
+            }
+        } catch (Exception e) {
+            logger.error(e, "Failed to take a snapshot of units {}", objects);
+            serialized = null;
+        }
+        this.data = serialized;
+    }
+
+    /**
+     * Creates new copies of the units as they were when the snapshot was taken. Each call returns separate copies.
+     *
+     * @return The copies of the units and the other objects, in the original order, or null if the snapshot could
+     *         not be taken or restored
+     */
+    public @Nullable List<BTObject> restore() {
+        if (data == null) {
+            return null;
+        }
+        List<BTObject> copies = new ArrayList<>(objects.size());
+        try {
+            for (int i = 0; i < objects.size(); i++) {
+                BTObject object = objects.get(i);
+                copies.add((object instanceof Entity entity) ? UnitUtil.deserializeUnit(data.get(i), entity) : object);
+            }
+            return copies;
+        } catch (Exception e) {
+            logger.error(e, "Failed to restore a snapshot of units {}", objects);
+            return null;
+        }
+    }
+}
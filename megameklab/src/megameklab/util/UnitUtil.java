@@ -2135,37 +2135,105 @@ public class UnitUtil {
         }
     }
 
+    /**
+     * Serialized units up to this size keep their buffer for the next clone on the same thread. Render workers live
+     * as long as the application, so a larger buffer is dropped after use instead of being held by every worker.
+     */
+    private static final int MAX_RETAINED_CLONE_BUFFER = 256 * 1024;
+
+    /**
+     * Buffer for serialized units that can be read back without copying its contents.
+     */
+    private static class CloneBuffer extends ByteArrayOutputStream {
+        CloneBuffer() {
+            super(64 * 1024);
+        }
+
+        ByteArrayInputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+        boolean isRetainable() {
+            return buf.length <= MAX_RETAINED_CLONE_BUFFER;
+        }
+    }
+
+    private static final ThreadLocal<CloneBuffer> cloneBuffer = ThreadLocal.withInitial(CloneBuffer::new);
+
     /**
      * Clone an entity. This method creates a deep copy of the entity, including all its properties and references.
+     * The entity is serialized into a buffer that is reused for the next clone on the same thread and read back
+     * from it directly, so the serialized form is neither copied nor grown from scratch for every clone.
      *
      * @param entity The entity to copy
      *
-     * @return The copied entity
+     * @return The copied entity, or null if it could not be copied
      */
     static public Entity cloneUnit(Entity entity) {
+        CloneBuffer buffer = cloneBuffer.get();
         try {
-            Entity newEntity;
-            try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-                try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
-                    // Serialize the entities
-                    objectOutputStream.writeObject(entity);
-                    objectOutputStream.flush();
-                    byte[] serializedData = byteArrayOutputStream.toByteArray();
-
-                    // Deserialize to create new instances
-                    try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(serializedData)) {
-                        try (ObjectInputStream objectInputStream = new ObjectInputStream(byteArrayInputStream)) {
-                            newEntity = (Entity) objectInputStream.readObject();
-                        }
-                    }
-                }
-            }
-            newEntity.setGame(entity.getGame());
-            newEntity.setOwner(entity.getOwner());
-            return newEntity;
+            writeUnit(entity, buffer);
+            return readUnit(buffer.toInputStream(), entity);
         } catch (Exception e) {
             logger.error(e, "Failed to break references for entity {}", entity);
             return null;
+        } finally {
+            releaseCloneBuffer(buffer);
+        }
+    }
+
+    /**
+     * Serializes an entity, so copies of it can be made later, possibly on another thread, with
+     * {@link #deserializeUnit(byte[], Entity)}.
+     *
+     * @param entity The entity to serialize
+     *
+     * @return The serialized entity
+     */
+    static public byte[] serializeUnit(Entity entity) throws IOException {
+        CloneBuffer buffer = cloneBuffer.get();
+        try {
+            writeUnit(entity, buffer);
+            return buffer.toByteArray();
+        } finally {
+            releaseCloneBuffer(buffer);
+        }
+    }
+
+    /**
+     * Creates a copy of an entity from its serialized form, as returned by {@link #serializeUnit(Entity)}.
+     *
+     * @param data     The serialized entity
+     * @param original The entity that was serialized, whose game and owner the copy gets
+     *
+     * @return The copied entity
+     */
+    static public Entity deserializeUnit(byte[] data, Entity original) throws IOException, ClassNotFoundException {
+        return readUnit(new ByteArrayInputStream(data), original);
+    }
+
+    private static void writeUnit(Entity entity, CloneBuffer buffer) throws IOException {
+        buffer.reset();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(buffer)) {
+            objectOutputStream.writeObject(entity);
+        }
+    }
+
+    private static Entity readUnit(ByteArrayInputStream input, Entity original)
+          throws IOException, ClassNotFoundException {
+        Entity newEntity;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(input)) {
+            newEntity = (Entity) objectInputStream.readObject();
+        }
+        newEntity.setGame(original.getGame());
+        newEntity.setOwner(original.getOwner());
+        return newEntity;
+    }
+
+    private static void releaseCloneBuffer(CloneBuffer buffer) {
+        buffer.reset();
+        if (!buffer.isRetainable()) {
+            cloneBuffer.remove();
         }
     }
 
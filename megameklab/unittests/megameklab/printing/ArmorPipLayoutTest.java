@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.util.SVGConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+class ArmorPipLayoutTest {
+    private final PrintRecordSheet sheet = mock(PrintRecordSheet.class);
+
+    @BeforeEach
+    void setUp() {
+        ArmorPipLayout.clearLayoutCache();
+    }
+
+    private static Element rect(Document doc, double x, double y, double width, double height) {
+        Element rect = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_RECT_TAG);
+        rect.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, String.valueOf(x));
+        rect.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, String.valueOf(y));
+        rect.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, String.valueOf(width));
+        rect.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, String.valueOf(height));
+        return rect;
+    }
+
+    private static Document newDocument() {
+        return SVGDOMImplementation.getDOMImplementation()
+                .createDocument(PrintRecordSheet.svgNS, SVGConstants.SVG_SVG_TAG, null);
+    }
+
+    /** A tapering region, like the torso of a Mek */
+    private static Element region() {
+        Document doc = newDocument();
+        Element group = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_G_TAG);
+        group.appendChild(rect(doc, 10, 10, 60, 6));
+        group.appendChild(rect(doc, 12, 20, 56, 6));
+        group.appendChild(rect(doc, 16, 30, 48, 6));
+        group.appendChild(rect(doc, 22, 40, 36, 6));
+        doc.getDocumentElement().appendChild(group);
+        return group;
+    }
+
+    /** A region with two separate sections, like the side armor of a VTOL */
+    private static Element multiSectionRegion() {
+        Document doc = newDocument();
+        Element group = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_G_TAG);
+        group.setAttributeNS(null, SVGConstants.SVG_STYLE_ATTRIBUTE, IdConstants.MML_MULTISECTION + ":true");
+        for (double x : new double[] { 10, 60 }) {
+            Element section = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_G_TAG);
+            section.appendChild(rect(doc, x, 10, 30, 6));
+            section.appendChild(rect(doc, x, 20, 30, 6));
+            group.appendChild(section);
+        }
+        doc.getDocumentElement().appendChild(group);
+        return group;
+    }
+
+    /**
+     * @return The name and attributes of every element that is not a rect or group, in document order
+     */
+    private static List<String> pips(Element group) {
+        List<String> pips = new ArrayList<>();
+        collectPips(group, pips);
+        return pips;
+    }
+
+    private static void collectPips(Node node, List<String> pips) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!(child instanceof Element element)) {
+                continue;
+            }
+            String name = element.getLocalName();
+            if (SVGConstants.SVG_G_TAG.equals(name)) {
+                collectPips(element, pips);
+            } else if (!SVGConstants.SVG_RECT_TAG.equals(name)) {
+                StringBuilder sb = new StringBuilder(name);
+                NamedNodeMap attributes = element.getAttributes();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    sb.append(' ').append(attributes.item(i).getNodeName()).append('=')
+                            .append(attributes.item(i).getNodeValue());
+                }
+                pips.add(sb.toString());
+            }
+        }
+    }
+
+    private void assertCachedLayoutMatchesComputed(Element first, Element second, int pipCount, boolean alternate) {
+        ArmorPipLayout.addPips(sheet, first, pipCount, alternate);
+        assertEquals(1, ArmorPipLayout.cachedLayoutCount());
+        ArmorPipLayout.addPips(sheet, second, pipCount, alternate);
+        assertEquals(1, ArmorPipLayout.cachedLayoutCount());
+
+        List<String> computed = pips(first);
+        assertFalse(computed.isEmpty());
+        assertEquals(computed, pips(second));
+    }
+
+    @Test
+    void cachedLayoutMatchesComputedLayout() {
+        assertCachedLayoutMatchesComputed(region(), region(), 23, false);
+    }
+
+    @Test
+    void cachedLayoutMatchesComputedLayoutGroupedInFives() {
+        assertCachedLayoutMatchesComputed(region(), region(), 23, true);
+    }
+
+    @Test
+    void cachedLayoutMatchesComputedLayoutOfSections() {
+        assertCachedLayoutMatchesComputed(multiSectionRegion(), multiSectionRegion(), 12, false);
+    }
+
+    @Test
+    void differentPipCountsAreCachedSeparately() {
+        Element few = region();
+        Element many = region();
+        ArmorPipLayout.addPips(sheet, few, 10, false);
+        ArmorPipLayout.addPips(sheet, many, 30, false);
+
+        assertEquals(2, ArmorPipLayout.cachedLayoutCount());
+        assertEquals(10, pips(few).size());
+        assertEquals(30, pips(many).size());
+    }
+}
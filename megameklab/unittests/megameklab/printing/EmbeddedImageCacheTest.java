@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Base64;
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EmbeddedImageCacheTest {
+    private static final long BUDGET = 16 * 1024 * 1024;
+
+    /** At 72 dpi one point of the box is one pixel */
+    private static final int POINT_DPI = 72;
+
+    private static BufferedImage image(int width, int height, int rgb) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage decode(EmbeddedImageCache.EncodedImage encoded) throws IOException {
+        String base64 = encoded.dataUri().substring(encoded.dataUri().indexOf(',') + 1);
+        return ImageIO.read(new ByteArrayInputStream(Base64.getDecoder().decode(base64)));
+    }
+
+    @Test
+    void sameImageIsEncodedOnce() throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(BUDGET, POINT_DPI);
+        BufferedImage image = image(20, 10, 0xff336699);
+
+        EmbeddedImageCache.EncodedImage first = cache.get(image, 100, 100);
+
+        assertSame(first, cache.get(image, 100, 100));
+        assertSame(first, cache.get(image(20, 10, 0xff336699), 100, 100));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void imagesWithDifferentPixelsAreNotShared() throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(BUDGET, POINT_DPI);
+
+        EmbeddedImageCache.EncodedImage red = cache.get(image(20, 10, 0xffff0000), 100, 100);
+        EmbeddedImageCache.EncodedImage blue = cache.get(image(20, 10, 0xff0000ff), 100, 100);
+
+        assertNotEquals(red.dataUri(), blue.dataUri());
+        assertEquals(0xffff0000, decode(red).getRGB(0, 0));
+        assertEquals(0xff0000ff, decode(blue).getRGB(0, 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void fingerprintIncludesDimensions() {
+        assertNotEquals(EmbeddedImageCache.fingerprint(image(20, 10, 0xffffffff)),
+                EmbeddedImageCache.fingerprint(image(10, 20, 0xffffffff)));
+        assertEquals(EmbeddedImageCache.fingerprint(image(20, 10, 0xffffffff)),
+                EmbeddedImageCache.fingerprint(image(20, 10, 0xffffffff)));
+    }
+
+    @Test
+    void largeImageIsScaledDownToBox() throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(BUDGET, POINT_DPI);
+
+        EmbeddedImageCache.EncodedImage encoded = cache.get(image(400, 200, 0xff00ff00), 100, 100);
+
+        BufferedImage decoded = decode(encoded);
+        assertEquals(100, decoded.getWidth());
+        assertEquals(50, decoded.getHeight());
+        assertEquals(0xff00ff00, decoded.getRGB(50, 25));
+        // The aspect ratio is taken from the source image
+        assertEquals(400, encoded.width());
+        assertEquals(200, encoded.height());
+    }
+
+    @Test
+    void smallImageIsNotScaledUp() throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(BUDGET, POINT_DPI);
+
+        BufferedImage decoded = decode(cache.get(image(40, 30, 0xff000000), 100, 100));
+
+        assertEquals(40, decoded.getWidth());
+        assertEquals(30, decoded.getHeight());
+    }
+
+    @Test
+    void zeroDpiKeepsFullSize() throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(BUDGET, 0);
+
+        BufferedImage decoded = decode(cache.get(image(400, 200, 0xff000000), 10, 10));
+
+        assertEquals(400, decoded.getWidth());
+        assertEquals(200, decoded.getHeight());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedImagesOverBudget() throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(1, POINT_DPI);
+
+        cache.get(image(20, 10, 0xffff0000), 100, 100);
+        cache.get(image(20, 10, 0xff0000ff), 100, 100);
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void modifiedFileIsReadAgain(@TempDir Path tempDir) throws IOException {
+        EmbeddedImageCache cache = new EmbeddedImageCache(BUDGET, POINT_DPI);
+        File file = tempDir.resolve("fluff.png").toFile();
+        ImageIO.write(image(20, 10, 0xffff0000), "png", file);
+
+        EmbeddedImageCache.EncodedImage first = cache.get(file, 100, 100);
+        assertSame(first, cache.get(file, 100, 100));
+
+        ImageIO.write(image(20, 10, 0xff0000ff), "png", file);
+        file.setLastModified(file.lastModified() + 2000);
+        EmbeddedImageCache.EncodedImage second = cache.get(file, 100, 100);
+
+        assertEquals(0xff0000ff, decode(second).getRGB(0, 0));
+        assertEquals(2, cache.size());
+    }
+}
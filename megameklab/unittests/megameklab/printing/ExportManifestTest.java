@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExportManifestTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void unchangedInputsAreCurrentAfterReopening() throws IOException {
+        Path template = Files.writeString(tempDir.resolve("template.svg"), "<svg/>");
+        File file = tempDir.resolve("manifest.tsv").toFile();
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+            manifest.record("unit.pdf", "u", "o", "1.0", null, List.of(template));
+        }
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertTrue(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+            assertFalse(manifest.isCurrent("unit.pdf", "changed", "o", "1.0"));
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "changed", "1.0"));
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "2.0"));
+        }
+    }
+
+    @Test
+    void changedTemplateIsNotCurrent() throws IOException {
+        Path template = Files.writeString(tempDir.resolve("template.svg"), "<svg/>");
+        File file = tempDir.resolve("manifest.tsv").toFile();
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            manifest.record("unit.pdf", "u", "o", "1.0", null, List.of(template));
+        }
+
+        Files.writeString(template, "<svg><g/></svg>");
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+    }
+
+    @Test
+    void closingKeepsOnlyLatestEntry() throws IOException {
+        File file = tempDir.resolve("manifest.tsv").toFile();
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            manifest.record("unit.pdf", "u", "o", "1.0", null, List.of());
+            manifest.record("unit.pdf", "u2", "o", "1.0", null, List.of());
+        }
+
+        assertEquals(1, Files.readAllLines(file.toPath()).size());
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertTrue(manifest.isCurrent("unit.pdf", "u2", "o", "1.0"));
+        }
+    }
+
+    @Test
+    void restartDiscardsEntries() throws IOException {
+        File file = tempDir.resolve("manifest.tsv").toFile();
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            manifest.record("unit.pdf", "u", "o", "1.0", null, List.of());
+        }
+
+        try (ExportManifest manifest = new ExportManifest(file, true)) {
+            assertEquals(0, manifest.size());
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+    }
+
+    @Test
+    void missingOutputIsNotCurrent() throws IOException {
+        Path output = Files.writeString(tempDir.resolve("unit.pdf"), "%PDF");
+        File file = tempDir.resolve("manifest.tsv").toFile();
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            manifest.record("unit.pdf", "u", "o", "1.0", output.toFile(), List.of());
+            assertTrue(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+
+        Files.delete(output);
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+    }
+
+    @Test
+    void changedFileInInputDirectoryIsNotCurrent() throws IOException {
+        Path images = Files.createDirectories(tempDir.resolve("fluff"));
+        File file = tempDir.resolve("manifest.tsv").toFile();
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            manifest.record("unit.pdf", "u", "o", "1.0", null, List.of(images));
+        }
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertTrue(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+
+        Files.writeString(images.resolve("Atlas.png"), "png");
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+    }
+
+    @Test
+    void missingInputFileIsNotCurrentOnceAdded() throws IOException {
+        Path pattern = tempDir.resolve("Armor_CT_30_Humanoid.svg");
+        File file = tempDir.resolve("manifest.tsv").toFile();
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            manifest.record("unit.pdf", "u", "o", "1.0", null, List.of(pattern));
+        }
+
+        Files.writeString(pattern, "<svg/>");
+
+        try (ExportManifest manifest = new ExportManifest(file, false)) {
+            assertFalse(manifest.isCurrent("unit.pdf", "u", "o", "1.0"));
+        }
+    }
+}
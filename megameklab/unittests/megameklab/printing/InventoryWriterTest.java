@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class InventoryWriterTest {
+    /** Roughly the height of the record sheet font, which scales linearly with the font size */
+    private static final Function<Float, Float> FONT_HEIGHT = fontSize -> fontSize * 1.17f;
+
+    /**
+     * The linear search that {@link InventoryWriter#scaleText(double, Function, Function)} replaced, with the
+     * reduction steps it used.
+     */
+    private static float[] linearScaleText(double height, Function<Float, Integer> calcLines,
+            Function<Float, Float> fontHeight) {
+        final float initialLineSpacing = 1.2f;
+        final float lineSpacingStep = 0.05f;
+        final float fontSizeStep = 0.25f;
+        final float minFontSize = 4.5f;
+        final float minLineSpacingInSpecialAttempts = 1.0f;
+        final float ratioFontSizeLineSpacingAttempts = 2;
+
+        float currentFontSize = PrintRecordSheet.FONT_SIZE_MEDIUM;
+        float currentLineSpacingFactor = initialLineSpacing;
+        int lines;
+        float actualLineHeight;
+        int alternateReductionState = 0;
+        boolean attemptForLineSpacingOnly = true;
+        while (true) {
+            lines = calcLines.apply(currentFontSize);
+            float fontMetricsHeight = fontHeight.apply(currentFontSize);
+            actualLineHeight = fontMetricsHeight * currentLineSpacingFactor;
+            if (actualLineHeight * lines < height) {
+                break;
+            }
+            if (attemptForLineSpacingOnly) {
+                attemptForLineSpacingOnly = false;
+                boolean fitFoundInSpecialPhase = false;
+                final float originalLineSpacingFactor = currentLineSpacingFactor;
+                while (true) {
+                    currentLineSpacingFactor = Math.max(InventoryWriter.MIN_LINE_SPACING,
+                            currentLineSpacingFactor - lineSpacingStep);
+                    if (currentLineSpacingFactor < minLineSpacingInSpecialAttempts) {
+                        break;
+                    }
+                    actualLineHeight = fontMetricsHeight * currentLineSpacingFactor;
+                    if (actualLineHeight * lines < height) {
+                        fitFoundInSpecialPhase = true;
+                        break;
+                    }
+                }
+                if (fitFoundInSpecialPhase) {
+                    continue;
+                } else {
+                    currentLineSpacingFactor = originalLineSpacingFactor;
+                    actualLineHeight = fontMetricsHeight * currentLineSpacingFactor;
+                }
+            }
+            boolean reductionMade = false;
+            if (alternateReductionState == 0) {
+                if (currentFontSize > minFontSize) {
+                    currentFontSize = Math.max(minFontSize, currentFontSize - fontSizeStep);
+                    reductionMade = true;
+                } else if (currentLineSpacingFactor > InventoryWriter.MIN_LINE_SPACING) {
+                    currentLineSpacingFactor = Math.max(InventoryWriter.MIN_LINE_SPACING,
+                            currentLineSpacingFactor - lineSpacingStep);
+                    reductionMade = true;
+                }
+            } else {
+                if (currentLineSpacingFactor > InventoryWriter.MIN_LINE_SPACING) {
+                    currentLineSpacingFactor = Math.max(InventoryWriter.MIN_LINE_SPACING,
+                            currentLineSpacingFactor - lineSpacingStep);
+                    reductionMade = true;
+                } else if (currentFontSize > minFontSize) {
+                    currentFontSize = Math.max(minFontSize, currentFontSize - fontSizeStep);
+                    reductionMade = true;
+                }
+            }
+            alternateReductionState++;
+            if (alternateReductionState > ratioFontSizeLineSpacingAttempts) {
+                alternateReductionState = 0;
+            }
+            if (!reductionMade) {
+                break;
+            }
+        }
+        return new float[] { currentFontSize, actualLineHeight };
+    }
+
+    /** Line counts for a fixed amount of text, which wraps onto fewer lines at smaller font sizes */
+    private static Function<Float, Integer> wrappingText(int baseLines, int wrappedLines) {
+        return fontSize -> baseLines + (int) Math.ceil(wrappedLines * fontSize / PrintRecordSheet.FONT_SIZE_MEDIUM);
+    }
+
+    @Test
+    void bisectionMatchesLinearSearch() {
+        List<Function<Float, Integer>> lineCounts = List.of(fontSize -> 1, fontSize -> 30, fontSize -> 120,
+                wrappingText(20, 10), wrappingText(40, 60));
+        for (Function<Float, Integer> calcLines : lineCounts) {
+            for (double height = 5; height < 1000; height += 0.5) {
+                float[] expected = linearScaleText(height, calcLines, FONT_HEIGHT);
+                float[] actual = InventoryWriter.scaleText(height, calcLines, FONT_HEIGHT);
+                assertArrayEquals(expected, actual, "Height " + height);
+            }
+        }
+    }
+
+    @Test
+    void bisectionCoversAllOutcomes() {
+        // The comparison above is only meaningful if it reaches the unreduced size, the line spacing only phase,
+        // the alternate cycle and the smallest size
+        Set<Float> fontSizes = new HashSet<>();
+        Function<Float, Integer> calcLines = wrappingText(40, 60);
+        for (double height = 5; height < 1000; height += 0.5) {
+            fontSizes.add(InventoryWriter.scaleText(height, calcLines, FONT_HEIGHT)[0]);
+        }
+        assertTrue(fontSizes.contains(PrintRecordSheet.FONT_SIZE_MEDIUM));
+        assertTrue(fontSizes.contains(4.5f));
+        assertTrue(fontSizes.size() > 3);
+    }
+}
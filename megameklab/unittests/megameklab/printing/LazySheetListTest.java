@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import megamek.common.AeroSpaceFighter;
+import megamek.common.BTObject;
+import megamek.common.BattleArmor;
+import megamek.common.BipedMek;
+import megamek.common.Dropship;
+import megamek.common.Infantry;
+import megameklab.testing.util.InitializeTypes;
+import megameklab.util.UnitPrintManager;
+
+@ExtendWith(value = InitializeTypes.class)
+class LazySheetListTest {
+
+    @Test
+    void sheetIsCreatedOnFirstAccess() {
+        AtomicInteger created = new AtomicInteger();
+        LazySheetList sheets = new LazySheetList();
+        sheets.addLazy(3, 2, () -> {
+            created.incrementAndGet();
+            return mock(PrintRecordSheet.class);
+        });
+
+        LazySheetList.Entry entry = LazySheetList.entries(sheets).get(0);
+        assertEquals(3, entry.getFirstPage());
+        assertEquals(2, entry.getPageCount());
+        assertEquals(0, created.get());
+
+        PrintRecordSheet sheet = sheets.get(0);
+        assertSame(sheet, entry.getSheet());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void releasedSheetIsCreatedAgain() {
+        AtomicInteger created = new AtomicInteger();
+        LazySheetList sheets = new LazySheetList();
+        sheets.addLazy(0, 1, () -> {
+            created.incrementAndGet();
+            return mock(PrintRecordSheet.class);
+        });
+        LazySheetList.Entry entry = LazySheetList.entries(sheets).get(0);
+
+        PrintRecordSheet first = entry.getSheet();
+        entry.releaseSheet();
+        PrintRecordSheet second = entry.getSheet();
+
+        assertNotSame(first, second);
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void callbackIsSetWhenSheetIsCreated() {
+        PrintRecordSheet sheet = mock(PrintRecordSheet.class);
+        Consumer<Integer> callback = mock(Consumer.class);
+        LazySheetList sheets = new LazySheetList();
+        sheets.addLazy(0, 1, () -> sheet);
+
+        LazySheetList.entries(sheets).get(0).setCallback(callback);
+        sheets.get(0);
+
+        verify(sheet).setCallback(callback);
+    }
+
+    @Test
+    void removeDropsEntry() {
+        LazySheetList sheets = new LazySheetList();
+        PrintRecordSheet first = mock(PrintRecordSheet.class);
+        PrintRecordSheet second = mock(PrintRecordSheet.class);
+        sheets.addLazy(0, 1, () -> first);
+        sheets.addLazy(1, 1, () -> second);
+
+        assertSame(first, sheets.remove(0));
+        assertEquals(1, sheets.size());
+        assertSame(second, sheets.get(0));
+        assertEquals(1, LazySheetList.entries(sheets).get(0).getFirstPage());
+    }
+
+    @Test
+    void plannedPagesMatchCreatedSheets() {
+        RecordSheetOptions options = new RecordSheetOptions();
+        options.setDamage(true);
+        List<BTObject> units = List.of(new BipedMek(), new AeroSpaceFighter(), new Dropship(), new BipedMek(),
+                new BattleArmor(), new Infantry());
+
+        List<PrintRecordSheet> sheets = UnitPrintManager.createSheets(units, false, options, true);
+
+        assertInstanceOf(LazySheetList.class, sheets);
+        List<LazySheetList.Entry> entries = LazySheetList.entries(sheets);
+        assertEquals(6, entries.size());
+        int dropshipPages = entries.get(2).getPageCount();
+        int[] expectedFirstPages = { 0, 1, 2, 2 + dropshipPages, 3 + dropshipPages, 4 + dropshipPages };
+        for (int i = 0; i < entries.size(); i++) {
+            LazySheetList.Entry entry = entries.get(i);
+            assertEquals(expectedFirstPages[i], entry.getFirstPage(), "First page of sheet " + i);
+            PrintRecordSheet sheet = entry.getSheet();
+            assertEquals(entry.getFirstPage(), sheet.getFirstPage(), "Created first page of sheet " + i);
+            assertEquals(entry.getPageCount(), sheet.getPageCount(), "Created page count of sheet " + i);
+        }
+        assertInstanceOf(PrintMek.class, entries.get(0).getSheet());
+        assertInstanceOf(PrintDropship.class, entries.get(2).getSheet());
+        assertInstanceOf(PrintSmallUnitSheet.class, entries.get(4).getSheet());
+    }
+
+    @Test
+    void singlePrintPlansOneSheetPerSmallUnit() {
+        RecordSheetOptions options = new RecordSheetOptions();
+        options.setDamage(true);
+        List<BTObject> units = List.of(new BattleArmor(), new BattleArmor(), new BipedMek());
+
+        List<LazySheetList.Entry> entries = LazySheetList.entries(
+                UnitPrintManager.createSheets(units, true, options, true));
+
+        assertEquals(3, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i, entries.get(i).getFirstPage());
+            assertEquals(i, entries.get(i).getSheet().getFirstPage());
+        }
+    }
+}
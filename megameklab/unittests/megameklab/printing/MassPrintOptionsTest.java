@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import megamek.common.MekSummary;
+import org.junit.jupiter.api.Test;
+
+class MassPrintOptionsTest {
+
+    private static MekSummary summary(String name, String unitType) {
+        MekSummary summary = new MekSummary();
+        summary.setName(name);
+        summary.setUnitType(unitType);
+        return summary;
+    }
+
+    @Test
+    void defaultFilesAreInOutputDirectory() {
+        MassPrintOptions options = MassPrintOptions.parse("--output", "out", "--threads", "3");
+
+        assertEquals(3, options.threads);
+        assertEquals(new File("out", "manifest.tsv"), options.manifestFile);
+        assertEquals(new File("out", "report.csv"), options.reportFile);
+    }
+
+    @Test
+    void nameRangeIncludesUnitsStartingWithUpperBound() {
+        MassPrintOptions options = MassPrintOptions.parse("--from", "b", "--to", "c");
+
+        assertFalse(options.matches(summary("Atlas AS7-D", "Mek")));
+        assertTrue(options.matches(summary("Banshee BNC-3E", "Mek")));
+        assertTrue(options.matches(summary("Catapult CPLT-C1", "Mek")));
+        assertFalse(options.matches(summary("Dragon DRG-1N", "Mek")));
+    }
+
+    @Test
+    void unitTypeIgnoresCaseAndSpaces() {
+        MassPrintOptions options = MassPrintOptions.parse("--type", "mek, small craft");
+
+        assertTrue(options.matches(summary("Atlas AS7-D", "Mek")));
+        assertTrue(options.matches(summary("Seeker", "Small Craft")));
+        assertFalse(options.matches(summary("Demolisher", "Tank")));
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MassPrintOptions.parse("--threads", "0"));
+        assertThrows(IllegalArgumentException.class, () -> MassPrintOptions.parse("--output"));
+        assertThrows(IllegalArgumentException.class, () -> MassPrintOptions.parse("--bogus"));
+    }
+}
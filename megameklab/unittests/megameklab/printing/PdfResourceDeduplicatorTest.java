@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+
+class PdfResourceDeduplicatorTest {
+    private static final COSName IMAGE_NAME = COSName.getPDFName("Im1");
+
+    private static PDPage pageWithImage(byte[] data) throws IOException {
+        COSStream image = new COSStream();
+        image.setItem(COSName.SUBTYPE, COSName.IMAGE);
+        try (OutputStream os = image.createRawOutputStream()) {
+            os.write(data);
+        }
+        COSDictionary xObjects = new COSDictionary();
+        xObjects.setItem(IMAGE_NAME, image);
+        COSDictionary resources = new COSDictionary();
+        resources.setItem(COSName.XOBJECT, xObjects);
+        PDPage page = new PDPage();
+        page.getCOSObject().setItem(COSName.RESOURCES, resources);
+        return page;
+    }
+
+    private static COSBase image(PDPage page) {
+        COSDictionary resources = (COSDictionary) page.getCOSObject().getDictionaryObject(COSName.RESOURCES);
+        return ((COSDictionary) resources.getDictionaryObject(COSName.XOBJECT)).getDictionaryObject(IMAGE_NAME);
+    }
+
+    @Test
+    void identicalImagesAreShared() throws IOException {
+        PdfResourceDeduplicator deduplicator = new PdfResourceDeduplicator();
+        PDPage first = pageWithImage(new byte[] { 1, 2, 3 });
+        PDPage second = pageWithImage(new byte[] { 1, 2, 3 });
+
+        deduplicator.deduplicate(first);
+        deduplicator.deduplicate(second);
+
+        assertSame(image(first), image(second));
+        assertEquals(1, deduplicator.getSharedStreams());
+        assertEquals(3, deduplicator.getSharedBytes());
+    }
+
+    @Test
+    void differentImagesAreKept() throws IOException {
+        PdfResourceDeduplicator deduplicator = new PdfResourceDeduplicator();
+        PDPage first = pageWithImage(new byte[] { 1, 2, 3 });
+        PDPage second = pageWithImage(new byte[] { 1, 2, 4 });
+
+        deduplicator.deduplicate(first);
+        deduplicator.deduplicate(second);
+
+        assertNotSame(image(first), image(second));
+        assertEquals(0, deduplicator.getSharedStreams());
+    }
+}
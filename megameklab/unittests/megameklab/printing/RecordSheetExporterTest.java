@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.print.PageFormat;
+import java.util.UUID;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.util.SVGConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import megamek.common.Dropship;
+import megameklab.testing.util.InitializeTypes;
+
+@ExtendWith(value = InitializeTypes.class)
+class RecordSheetExporterTest {
+
+    private static Document shadedTable(String text) {
+        Document doc = SVGDOMImplementation.getDOMImplementation()
+                .createDocument(PrintRecordSheet.svgNS, SVGConstants.SVG_SVG_TAG, null);
+        Element root = doc.getDocumentElement();
+        for (int i = 0; i < 2; i++) {
+            Element shade = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_RECT_TAG);
+            shade.setAttributeNS(null, SVGConstants.SVG_ID_ATTRIBUTE, UUID.randomUUID().toString());
+            shade.setAttributeNS(null, SVGConstants.SVG_CLASS_ATTRIBUTE, "tableshading");
+            root.appendChild(shade);
+        }
+        Element label = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_TEXT_TAG);
+        label.setTextContent(text);
+        root.appendChild(label);
+        return doc;
+    }
+
+    private static Dropship dropship() {
+        Dropship dropship = new Dropship();
+        dropship.setChassis("Test Dropship");
+        dropship.setModel("TDS-999");
+        return dropship;
+    }
+
+    private static String hashFirstPage(PrintRecordSheet sheet, PageFormat pageFormat) throws Exception {
+        assertTrue(sheet.createDocument(sheet.getFirstPage(), pageFormat, true));
+        return RecordSheetExporter.hashDocument(sheet.getSVGDocument());
+    }
+
+    @Test
+    void hashIgnoresRandomIds() throws Exception {
+        assertEquals(RecordSheetExporter.hashDocument(shadedTable("Medium Laser")),
+                RecordSheetExporter.hashDocument(shadedTable("Medium Laser")));
+        assertNotEquals(RecordSheetExporter.hashDocument(shadedTable("Medium Laser")),
+                RecordSheetExporter.hashDocument(shadedTable("Large Laser")));
+    }
+
+    @Test
+    void sheetsOfIdenticalUnitsDedupe() throws Exception {
+        PageFormat pageFormat = new PageFormat();
+        RecordSheetOptions options = new RecordSheetOptions();
+        options.setReferenceCharts(true);
+
+        String first = hashFirstPage(new PrintDropship(dropship(), 0, options), pageFormat);
+        String second = hashFirstPage(new PrintDropship(dropship(), 0, options), pageFormat);
+        assertEquals(first, second);
+
+        Dropship other = dropship();
+        other.setModel("TDS-1000");
+        assertNotEquals(first, hashFirstPage(new PrintDropship(other, 0, options), pageFormat));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RenderSchedulerTest {
+    private final RenderScheduler scheduler = new RenderScheduler(1);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void interactiveTaskRunsBeforeQueuedBatchTask() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        Future<?> blocker = scheduler.submit(RenderScheduler.Priority.BATCH, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Future<?> batch = scheduler.submit(RenderScheduler.Priority.BATCH, () -> order.add("batch"));
+        Future<?> interactive = scheduler.submit(RenderScheduler.Priority.INTERACTIVE,
+                () -> order.add("interactive"));
+        assertEquals(1, scheduler.getQueueDepth(RenderScheduler.Priority.BATCH));
+        assertEquals(1, scheduler.getQueueDepth(RenderScheduler.Priority.INTERACTIVE));
+
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        batch.get(5, TimeUnit.SECONDS);
+        interactive.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("interactive", "batch"), order);
+    }
+
+    @Test
+    void cancelledTokenDropsQueuedTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = scheduler.submit(RenderScheduler.Priority.INTERACTIVE, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        RenderScheduler.CancellationToken token = new RenderScheduler.CancellationToken();
+        Future<String> queued = scheduler.submit(RenderScheduler.Priority.BATCH, token, () -> "rendered");
+
+        token.cancel();
+
+        assertTrue(queued.isCancelled());
+        assertEquals(0, scheduler.getQueueDepth(RenderScheduler.Priority.BATCH));
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void cancelledTokenWaitsForRunningTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        RenderScheduler.CancellationToken token = new RenderScheduler.CancellationToken();
+        Future<?> running = scheduler.submit(RenderScheduler.Priority.BATCH, token, () -> {
+            started.countDown();
+            // Like a transcode, ignore the interrupt until the work is done
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException ignored) {
+                }
+            }
+            finished.set(true);
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        token.cancel();
+        assertTrue(running.isCancelled());
+        assertFalse(finished.get());
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+        token.awaitStopped();
+
+        assertTrue(finished.get());
+    }
+
+    @Test
+    void closeDropsQueuedTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = scheduler.submit(RenderScheduler.Priority.INTERACTIVE, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Future<?> queued = scheduler.submit(RenderScheduler.Priority.BATCH, () -> { });
+
+        scheduler.close();
+
+        assertTrue(queued.isCancelled());
+        assertEquals(0, scheduler.getQueueDepth(RenderScheduler.Priority.BATCH));
+        assertTrue(scheduler.submit(RenderScheduler.Priority.BATCH, () -> { }).isCancelled());
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.print.PageFormat;
+import java.util.UUID;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.GVTBuilder;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.util.SVGConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import megamek.common.Dropship;
+import megameklab.testing.util.InitializeTypes;
+
+@ExtendWith(value = InitializeTypes.class)
+class SVGDocumentPatcherTest {
+
+    private static Document page(String name, String fill) {
+        Document doc = SVGDOMImplementation.getDOMImplementation()
+                .createDocument(PrintRecordSheet.svgNS, SVGConstants.SVG_SVG_TAG, null);
+        Element root = doc.getDocumentElement();
+        root.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, "200");
+        root.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, "100");
+        Element text = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_TEXT_TAG);
+        text.setAttributeNS(null, SVGConstants.SVG_ID_ATTRIBUTE, "name");
+        text.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, "10");
+        text.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, "20");
+        text.setTextContent(name);
+        root.appendChild(text);
+        Element rect = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_RECT_TAG);
+        rect.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, "150");
+        rect.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, "50");
+        rect.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, "20");
+        rect.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, "20");
+        rect.setAttributeNS(null, SVGConstants.SVG_FILL_ATTRIBUTE, fill);
+        root.appendChild(rect);
+        Element shade = doc.createElementNS(PrintRecordSheet.svgNS, SVGConstants.SVG_RECT_TAG);
+        shade.setAttributeNS(null, SVGConstants.SVG_ID_ATTRIBUTE, UUID.randomUUID().toString());
+        shade.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, "10");
+        shade.setAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE, "50");
+        shade.setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, "100");
+        shade.setAttributeNS(null, SVGConstants.SVG_HEIGHT_ATTRIBUTE, "10");
+        root.appendChild(shade);
+        return doc;
+    }
+
+    private static PrintRecordSheet filledDropship(PageFormat pageFormat) {
+        Dropship dropship = new Dropship();
+        dropship.setChassis("Test Dropship");
+        dropship.setModel("TDS-999");
+        RecordSheetOptions options = new RecordSheetOptions();
+        options.setReferenceCharts(true);
+        PrintRecordSheet sheet = new PrintDropship(dropship, 0, options);
+        assertTrue(sheet.createDocument(sheet.getFirstPage(), pageFormat, true));
+        return sheet;
+    }
+
+    private static Document built(String name, String fill) {
+        Document doc = page(name, fill);
+        BridgeContext ctx = new BridgeContext(new UserAgentAdapter());
+        ctx.setDynamic(true);
+        new GVTBuilder().build(ctx, doc);
+        return doc;
+    }
+
+    @Test
+    void sameDocumentsHaveNoChangedAreas() {
+        SVGDocumentPatcher.Result result = SVGDocumentPatcher.patch(built("Atlas", "#000000"),
+                page("Atlas", "#000000"));
+
+        assertNotNull(result);
+        assertTrue(result.areasKnown());
+        assertTrue(result.changedAreas().isEmpty());
+    }
+
+    @Test
+    void refilledSheetHasNoChangedAreas() {
+        PageFormat pageFormat = new PageFormat();
+        PrintRecordSheet live = filledDropship(pageFormat);
+        assertNotNull(live.build());
+
+        SVGDocumentPatcher.Result result = SVGDocumentPatcher.patch(live.getSVGDocument(),
+                filledDropship(pageFormat).getSVGDocument());
+
+        assertNotNull(result);
+        assertTrue(result.areasKnown());
+        assertTrue(result.changedAreas().isEmpty());
+    }
+
+    @Test
+    void changedTextIsReplacedAndLocated() {
+        Document live = built("Atlas", "#000000");
+
+        SVGDocumentPatcher.Result result = SVGDocumentPatcher.patch(live, page("Awesome", "#000000"));
+
+        assertNotNull(result);
+        assertTrue(result.areasKnown());
+        assertFalse(result.changedAreas().isEmpty());
+        assertEquals("Awesome", live.getElementById("name").getTextContent());
+        // The rectangle on the other side of the page is not part of the change
+        assertTrue(result.changedAreas().stream().noneMatch(area -> area.contains(160, 60)));
+    }
+
+    @Test
+    void changedRootCannotBePatched() {
+        Document updated = page("Atlas", "#000000");
+        updated.getDocumentElement().setAttributeNS(null, SVGConstants.SVG_WIDTH_ATTRIBUTE, "300");
+
+        assertNull(SVGDocumentPatcher.patch(built("Atlas", "#000000"), updated));
+    }
+}
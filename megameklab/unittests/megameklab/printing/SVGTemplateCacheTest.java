@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+class SVGTemplateCacheTest {
+    private static final String SVG = """
+            <svg xmlns="http://www.w3.org/2000/svg" width="612" height="792">
+              <g id="template"><text id="title">Title</text></g>
+            </svg>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeTemplate(String name) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.writeString(path, SVG);
+        return path;
+    }
+
+    @Test
+    void secondRequestIsHit() throws IOException {
+        SVGTemplateCache cache = new SVGTemplateCache(1024 * 1024);
+        Path path = writeTemplate("a.svg");
+
+        Document first = cache.getDocument(path);
+        Document second = cache.getDocument(path);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void copiesAreIndependent() throws IOException {
+        SVGTemplateCache cache = new SVGTemplateCache(1024 * 1024);
+        Path path = writeTemplate("a.svg");
+
+        Document first = cache.getDocument(path);
+        first.getElementById("title").setTextContent("Changed");
+        Document second = cache.getDocument(path);
+
+        assertNotSame(first, second);
+        assertEquals("Title", second.getElementById("title").getTextContent());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        Path a = writeTemplate("a.svg");
+        Path b = writeTemplate("b.svg");
+        // Room for a single template
+        SVGTemplateCache cache = new SVGTemplateCache(Files.size(a) * 8 + 1);
+
+        cache.getDocument(a);
+        cache.getDocument(b);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.getDocument(a);
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void variantIsPreparedOnceAndCountedOnce() throws IOException {
+        SVGTemplateCache cache = new SVGTemplateCache(1024 * 1024);
+        Path path = writeTemplate("a.svg");
+        AtomicInteger preparations = new AtomicInteger();
+        Consumer<Document> prepare = doc -> {
+            preparations.incrementAndGet();
+            doc.getElementById("title").setTextContent("Prepared");
+        };
+
+        Document first = cache.getDocument(path, "options", prepare);
+        Document second = cache.getDocument(path, "options", prepare);
+
+        assertEquals(1, preparations.get());
+        assertEquals("Prepared", first.getElementById("title").getTextContent());
+        assertEquals("Prepared", second.getElementById("title").getTextContent());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void variantDoesNotChangeCachedTemplate() throws IOException {
+        SVGTemplateCache cache = new SVGTemplateCache(1024 * 1024);
+        Path path = writeTemplate("a.svg");
+
+        cache.getDocument(path);
+        cache.getDocument(path, "options", doc -> doc.getElementById("title").setTextContent("Prepared"));
+
+        assertEquals("Title", cache.getDocument(path).getElementById("title").getTextContent());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void missingFileReturnsNull() {
+        SVGTemplateCache cache = new SVGTemplateCache(1024 * 1024);
+        assertNull(cache.getDocument(tempDir.resolve("missing.svg")));
+    }
+}
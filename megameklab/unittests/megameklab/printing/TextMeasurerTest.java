@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.printing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TextMeasurerTest {
+    private static final FontRenderContext FRC = new FontRenderContext(new AffineTransform(), true, true);
+    /** Table widths and AWT widths add up the same advances in a different order, see TextMeasurer#getWidth */
+    private static final double DELTA = 1e-6;
+
+    @Test
+    void widthMatchesStringBounds() {
+        TextMeasurer measurer = new TextMeasurer();
+        for (int style : new int[] { Font.PLAIN, Font.BOLD, Font.ITALIC, Font.BOLD | Font.ITALIC }) {
+            Font font = Font.decode("Dialog").deriveFont(style, 7.25f);
+            for (String text : new String[] { "", "Medium Laser", "LRM 20 (Clan) [Artemis IV]", "Ammo (AC/10) 10",
+                    "Gr\u00f6\u00dfe \u00d7 2 \u00bd" }) {
+                assertEquals(font.getStringBounds(text, FRC).getWidth(), measurer.getWidth(text, font, FRC), DELTA);
+            }
+        }
+    }
+
+    @Test
+    void textOutsideTableFallsBackToAwt() {
+        TextMeasurer measurer = new TextMeasurer();
+        Font font = Font.decode("Dialog").deriveFont(8f);
+        String text = "Heat \u2022 \u2192 Sink";
+
+        assertEquals(font.getStringBounds(text, FRC).getWidth(), measurer.getWidth(text, font, FRC), DELTA);
+    }
+
+    @Test
+    void heightIsLookedUpPerRenderContext() {
+        TextMeasurer measurer = new TextMeasurer();
+        Font font = Font.decode("Dialog").deriveFont(8f);
+        FontRenderContext scaled = new FontRenderContext(AffineTransform.getScaleInstance(2, 2), true, true);
+        AtomicInteger lookups = new AtomicInteger();
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+        for (FontRenderContext frc : new FontRenderContext[] { FRC, scaled, FRC, scaled }) {
+            measurer.getHeight(font, frc, f -> {
+                lookups.incrementAndGet();
+                return image.getGraphics().getFontMetrics(f);
+            });
+        }
+
+        assertEquals(2, lookups.get());
+    }
+}
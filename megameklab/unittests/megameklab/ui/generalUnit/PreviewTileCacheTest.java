@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.ui.generalUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+class PreviewTileCacheTest {
+    private static final long TILE_BYTES = 16L * 16L * 4L;
+
+    private static PreviewTileCache.Tile tile() {
+        return new PreviewTileCache.Tile(new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB), 1.0);
+    }
+
+    private static PreviewTileCache.TileKey key(Object page, int column) {
+        return new PreviewTileCache.TileKey(page, 0, PreviewTileCache.zoomKey(1.0), column, 0);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedTileOverBudget() {
+        PreviewTileCache cache = new PreviewTileCache(TILE_BYTES * 2);
+        Object page = new Object();
+        cache.put(key(page, 0), tile());
+        cache.put(key(page, 1), tile());
+        assertNotNull(cache.get(key(page, 0)));
+
+        cache.put(key(page, 2), tile());
+
+        assertEquals(2, cache.size());
+        assertEquals(TILE_BYTES * 2, cache.getCurrentBytes());
+        assertTrue(cache.contains(key(page, 0)));
+        assertFalse(cache.contains(key(page, 1)));
+    }
+
+    @Test
+    void removePageKeepsOtherPages() {
+        PreviewTileCache cache = new PreviewTileCache(TILE_BYTES * 8);
+        Object first = new Object();
+        Object second = new Object();
+        cache.put(key(first, 0), tile());
+        cache.put(key(first, 1), tile());
+        cache.put(key(second, 0), tile());
+
+        cache.removePage(first);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.tilesOf(second).size());
+        assertTrue(cache.tilesOf(first).isEmpty());
+    }
+}
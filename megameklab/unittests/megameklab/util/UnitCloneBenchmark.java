@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.logging.MMLogger;
+
+/**
+ * Measures how long {@link UnitUtil#cloneUnit(Entity)} takes for the units used by {@link UnitUtilCloneTest}. This
+ * is not part of the test suite. Run it with the {@code cloneBenchmark} Gradle task, before and after a change to
+ * the clone code, to compare the two.
+ */
+public final class UnitCloneBenchmark {
+    private static final MMLogger logger = MMLogger.create(UnitCloneBenchmark.class);
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String... args) throws Exception {
+        EquipmentType.initializeTypes();
+        List<Entity> force = new ArrayList<>();
+        for (String fileName : UnitUtilCloneTest.UNITS) {
+            Entity entity = UnitUtilCloneTest.load(fileName);
+            force.add(entity);
+            logger.info("Cloning {}: {} us", fileName, measure(List.of(entity)) / 1000);
+        }
+        logger.info("Cloning all {} units: {} us", force.size(), measure(force) / 1000);
+    }
+
+    /**
+     * @return The average time in nanoseconds to clone all the entities once
+     */
+    private static long measure(List<Entity> entities) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            entities.forEach(UnitUtil::cloneUnit);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            entities.forEach(UnitUtil::cloneUnit);
+        }
+        return (System.nanoTime() - start) / MEASURED_ROUNDS;
+    }
+
+    private UnitCloneBenchmark() {
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMekLab.
+ *
+ * MegaMekLab is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMekLab is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMekLab. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megameklab.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import megamek.common.Entity;
+import megamek.common.MekFileParser;
+import megameklab.testing.util.InitializeTypes;
+
+/**
+ * Checks the copies made by {@link UnitUtil#cloneUnit(Entity)} and by {@link UnitUtil#serializeUnit(Entity)} and
+ * {@link UnitUtil#deserializeUnit(byte[], Entity)}. The speed of cloning is measured by {@link UnitCloneBenchmark}.
+ */
+@ExtendWith(value = InitializeTypes.class)
+class UnitUtilCloneTest {
+    static final List<String> UNITS = List.of("/Peregrine Corvette.blk", "/Union 'Pocket Warship'.blk",
+          "/Kirghiz C.blk", "/Harpagos.mtf", "/Sleipnir APC.blk");
+
+    static Entity load(String fileName) throws Exception {
+        // This only works if the file is in the test resources root
+        InputStream is = UnitUtilCloneTest.class.getResourceAsStream(fileName);
+        assertNotNull(is);
+        return new MekFileParser(is, fileName).getEntity();
+    }
+
+    private static void assertCopy(Entity entity, Entity copy) {
+        assertNotNull(copy);
+        assertNotSame(entity, copy);
+        assertEquals(entity.getChassis(), copy.getChassis());
+        assertEquals(entity.getModel(), copy.getModel());
+        assertEquals(entity.getEquipment().size(), copy.getEquipment().size());
+        for (int j = 0; j < entity.getEquipment().size(); j++) {
+            assertNotSame(entity.getEquipment().get(j), copy.getEquipment().get(j));
+        }
+    }
+
+    @Test
+    void clonesUnits() throws Exception {
+        for (String fileName : UNITS) {
+            Entity entity = load(fileName);
+            assertCopy(entity, UnitUtil.cloneUnit(entity));
+        }
+    }
+
+    @Test
+    void restoresSerializedUnits() throws Exception {
+        for (String fileName : UNITS) {
+            Entity entity = load(fileName);
+            byte[] data = UnitUtil.serializeUnit(entity);
+            assertCopy(entity, UnitUtil.deserializeUnit(data, entity));
+            assertCopy(entity, UnitUtil.deserializeUnit(data, entity));
+        }
+    }
+}